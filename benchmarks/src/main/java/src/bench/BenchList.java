@@ -0,0 +1,229 @@
+// BenchList.java - One face for the list engines and the JDK baselines
+package src.bench;
+
+import src.ListEngine;
+
+import java.util.*;
+
+/**
+ * The operations the benchmarks time, implemented once over a ListEngine
+ * and once each over java.util.LinkedList and ArrayDeque, so engines and
+ * baselines run exactly the same benchmark code.
+ */
+abstract class BenchList {
+    /** Implementation names for the impl parameter; the engines use the names the UI shows. */
+    static final String LINKED_LIST = "java.util.LinkedList";
+    static final String ARRAY_DEQUE = "java.util.ArrayDeque";
+
+    /** Creates the named implementation holding 0, 1, ..., size - 1. */
+    static BenchList create(String impl, int size) {
+        BenchList list;
+        switch (impl) {
+            case LINKED_LIST:
+                list = new JdkLinkedList();
+                break;
+            case ARRAY_DEQUE:
+                list = new JdkArrayDeque();
+                break;
+            default:
+                list = new Engine(ListEngine.create(impl));
+                break;
+        }
+        for (int i = 0; i < size; i++) {
+            list.insertEnd(i);
+        }
+        return list;
+    }
+
+    abstract void insertStart(int value);
+
+    abstract void insertEnd(int value);
+
+    abstract void insertAt(int value, int position);
+
+    abstract void deleteValue(int value);
+
+    abstract void deleteAt(int position);
+
+    /** Whether value is present: engines and baselines return the same kind of answer. */
+    abstract boolean search(int value);
+
+    abstract void reverse();
+
+    abstract Object getNodes(int from, int count);
+
+    abstract int size();
+
+    private static final class Engine extends BenchList {
+        private final ListEngine list;
+
+        Engine(ListEngine list) {
+            this.list = list;
+        }
+
+        @Override
+        void insertStart(int value) {
+            list.insertStart(value);
+        }
+
+        @Override
+        void insertEnd(int value) {
+            list.insertEnd(value);
+        }
+
+        @Override
+        void insertAt(int value, int position) {
+            list.insertAt(value, position);
+        }
+
+        @Override
+        void deleteValue(int value) {
+            list.deleteValue(value);
+        }
+
+        @Override
+        void deleteAt(int position) {
+            list.deleteAt(position);
+        }
+
+        @Override
+        boolean search(int value) {
+            return list.search(value) != null;
+        }
+
+        @Override
+        void reverse() {
+            list.reverse();
+        }
+
+        @Override
+        Object getNodes(int from, int count) {
+            return list.getNodes(from, count);
+        }
+
+        @Override
+        int size() {
+            return list.size();
+        }
+    }
+
+    private static final class JdkLinkedList extends BenchList {
+        private final LinkedList<Integer> list = new LinkedList<>();
+
+        @Override
+        void insertStart(int value) {
+            list.addFirst(value);
+        }
+
+        @Override
+        void insertEnd(int value) {
+            list.addLast(value);
+        }
+
+        @Override
+        void insertAt(int value, int position) {
+            list.add(position, value);
+        }
+
+        @Override
+        void deleteValue(int value) {
+            list.removeFirstOccurrence(value);
+        }
+
+        @Override
+        void deleteAt(int position) {
+            list.remove(position);
+        }
+
+        @Override
+        boolean search(int value) {
+            return list.contains(value);
+        }
+
+        // Collections.reverse swaps through two list iterators, in place
+        @Override
+        void reverse() {
+            Collections.reverse(list);
+        }
+
+        @Override
+        Object getNodes(int from, int count) {
+            return new ArrayList<>(list.subList(from, Math.min(list.size(), from + count)));
+        }
+
+        @Override
+        int size() {
+            return list.size();
+        }
+    }
+
+    /** ArrayDeque has no positional insert; the insertAt benchmarks leave it out. */
+    private static final class JdkArrayDeque extends BenchList {
+        private ArrayDeque<Integer> deque = new ArrayDeque<>();
+
+        @Override
+        void insertStart(int value) {
+            deque.addFirst(value);
+        }
+
+        @Override
+        void insertEnd(int value) {
+            deque.addLast(value);
+        }
+
+        @Override
+        void insertAt(int value, int position) {
+            throw new UnsupportedOperationException("ArrayDeque has no positional insert");
+        }
+
+        @Override
+        void deleteValue(int value) {
+            deque.removeFirstOccurrence(value);
+        }
+
+        // Only the ends are reachable
+        @Override
+        void deleteAt(int position) {
+            if (position == 0) {
+                deque.pollFirst();
+            } else if (position == deque.size() - 1) {
+                deque.pollLast();
+            } else {
+                throw new UnsupportedOperationException("ArrayDeque only deletes at its ends");
+            }
+        }
+
+        @Override
+        boolean search(int value) {
+            return deque.contains(value);
+        }
+
+        // No in-place reverse: rebuild through the descending iterator
+        @Override
+        void reverse() {
+            ArrayDeque<Integer> reversed = new ArrayDeque<>(deque.size());
+            for (Iterator<Integer> it = deque.descendingIterator(); it.hasNext();) {
+                reversed.addLast(it.next());
+            }
+            deque = reversed;
+        }
+
+        @Override
+        Object getNodes(int from, int count) {
+            List<Integer> window = new ArrayList<>(count);
+            Iterator<Integer> it = deque.iterator();
+            for (int i = 0; i < from && it.hasNext(); i++) {
+                it.next();
+            }
+            while (window.size() < count && it.hasNext()) {
+                window.add(it.next());
+            }
+            return window;
+        }
+
+        @Override
+        int size() {
+            return deque.size();
+        }
+    }
+}
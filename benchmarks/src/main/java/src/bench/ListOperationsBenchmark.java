@@ -0,0 +1,147 @@
+// ListOperationsBenchmark.java - JMH timings of every list operation across sizes
+package src.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times each public list operation on lists of 10 to 10^6 values, for every
+ * engine and the java.util.LinkedList and ArrayDeque baselines. Each list
+ * is built once per trial holding 0..size-1.
+ *
+ * A mutating benchmark also undoes its change, so the list stays at the
+ * size being measured; the pair is what gets timed. The undo is chosen to
+ * cost no more than the operation itself:
+ *
+ * <pre>
+ * insertStart   insertStart + deleteAt(0)
+ * insertEnd     insertEnd + deleteAt(0)            (the list rotates like a queue)
+ * insertAt      insertAt(middle) + deleteAt(middle)
+ * deleteAt      deleteAt(last) + insertEnd
+ * deleteValue   deleteValue(value at the middle) + insertEnd of that value
+ * </pre>
+ *
+ * Run through BenchmarkMain, which adds the GC profiler so every result
+ * also reports bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ListOperationsBenchmark {
+    static final int WINDOW = 32; // nodes per getNodes call, about one screen
+
+    @State(Scope.Thread)
+    public static class AnyList {
+        @Param({ "10", "100", "1000", "10000", "100000", "1000000" })
+        public int size;
+
+        @Param({ "Singly", "Doubly", "Circular", "Array", "Off-Heap", "Concurrent", BenchList.LINKED_LIST,
+                BenchList.ARRAY_DEQUE })
+        public String impl;
+
+        BenchList list;
+        int middle;
+        int target; // next value deleteValue removes; always sits at the middle
+
+        @Setup(Level.Trial)
+        public void build() {
+            list = BenchList.create(impl, size);
+            middle = size / 2;
+            target = middle;
+        }
+    }
+
+    /** Lists that support insertion at a position, which leaves out ArrayDeque. */
+    @State(Scope.Thread)
+    public static class IndexedList {
+        @Param({ "10", "100", "1000", "10000", "100000", "1000000" })
+        public int size;
+
+        @Param({ "Singly", "Doubly", "Circular", "Array", "Off-Heap", "Concurrent", BenchList.LINKED_LIST })
+        public String impl;
+
+        BenchList list;
+        int middle;
+
+        @Setup(Level.Trial)
+        public void build() {
+            list = BenchList.create(impl, size);
+            middle = size / 2;
+        }
+    }
+
+    /** Lists that can reverse, which leaves out the lock-free list. */
+    @State(Scope.Thread)
+    public static class ReversibleList {
+        @Param({ "10", "100", "1000", "10000", "100000", "1000000" })
+        public int size;
+
+        @Param({ "Singly", "Doubly", "Circular", "Array", "Off-Heap", BenchList.LINKED_LIST, BenchList.ARRAY_DEQUE })
+        public String impl;
+
+        BenchList list;
+
+        @Setup(Level.Trial)
+        public void build() {
+            list = BenchList.create(impl, size);
+        }
+    }
+
+    @Benchmark
+    public int insertStart(AnyList state) {
+        state.list.insertStart(-1);
+        state.list.deleteAt(0);
+        return state.list.size();
+    }
+
+    @Benchmark
+    public int insertEnd(AnyList state) {
+        state.list.insertEnd(-1);
+        state.list.deleteAt(0);
+        return state.list.size();
+    }
+
+    @Benchmark
+    public int insertAt(IndexedList state) {
+        state.list.insertAt(-1, state.middle);
+        state.list.deleteAt(state.middle);
+        return state.list.size();
+    }
+
+    @Benchmark
+    public int deleteAt(AnyList state) {
+        state.list.deleteAt(state.list.size() - 1);
+        state.list.insertEnd(-1);
+        return state.list.size();
+    }
+
+    // Moving the middle value to the end brings the next value to the middle;
+    // after size - middle rounds the list is back in its starting order
+    @Benchmark
+    public int deleteValue(AnyList state) {
+        int value = state.target;
+        state.list.deleteValue(value);
+        state.list.insertEnd(value);
+        state.target = value + 1 < state.size ? value + 1 : state.middle;
+        return state.list.size();
+    }
+
+    @Benchmark
+    public boolean search(AnyList state) {
+        return state.list.search(state.middle);
+    }
+
+    @Benchmark
+    public int reverse(ReversibleList state) {
+        state.list.reverse();
+        return state.list.size();
+    }
+
+    @Benchmark
+    public Object getNodes(AnyList state) {
+        return state.list.getNodes(state.middle, WINDOW);
+    }
+}
@@ -0,0 +1,244 @@
+// AnimationEngine.java - Frame-clock driven highlights, fades and node movement
+package src;
+
+import javax.swing.Timer;
+
+/**
+ * Runs every visualizer animation off one javax.swing.Timer, so all state is
+ * touched on the EDT and no thread is created per operation. Animations are
+ * pure functions of elapsed time: a late frame simply lands further along,
+ * which skips the frames that could not be drawn. The clock only runs while
+ * something is animating.
+ *
+ * At most MAX_ANIMATIONS are active; starting another finishes the oldest
+ * one early, so a burst of operations snaps older effects to their end state
+ * instead of piling up.
+ */
+final class AnimationEngine {
+    static final int MAX_ANIMATIONS = 64;
+    static final int FRAME_MILLIS = 16;
+
+    private static final int HIGHLIGHT = 0; // a: node id
+    private static final int SHIFT = 1; // a: first position, b: starting x offset
+    private static final int GHOST = 2; // a: position, b: value
+    private static final int MIRROR = 3; // a: list size
+
+    private static final long HOLD_NANOS = 600_000_000L;
+    private static final long FADE_NANOS = 400_000_000L;
+    private static final long MOVE_NANOS = 300_000_000L;
+
+    // Active animations in start order, backed by a fixed pool
+    private final Animation[] active = new Animation[MAX_ANIMATIONS];
+    private int count;
+
+    private final Timer clock;
+    private final Runnable onFrame;
+    private long lastTick;
+    private long skippedFrames;
+
+    /** onFrame is run on the EDT for every frame while animations are active. */
+    AnimationEngine(Runnable onFrame) {
+        this.onFrame = onFrame;
+        for (int i = 0; i < MAX_ANIMATIONS; i++) {
+            active[i] = new Animation();
+        }
+        clock = new Timer(FRAME_MILLIS, e -> tick());
+        clock.setCoalesce(true);
+    }
+
+    /** Lights a node up, holds, then fades it out. Restarts if it is already lit. */
+    void highlight(long nodeId) {
+        for (int i = 0; i < count; i++) {
+            if (active[i].kind == HIGHLIGHT && active[i].a == nodeId) {
+                remove(i);
+                break;
+            }
+        }
+        start(HIGHLIGHT, nodeId, 0, HOLD_NANOS + FADE_NANOS);
+    }
+
+    /** A node was linked in at position: later nodes slide over to make room. */
+    void inserted(int position, int spacing) {
+        adjustPositions(position, 1);
+        start(SHIFT, position + 1, -spacing, MOVE_NANOS);
+    }
+
+    /** A node was unlinked from position: it fades out while later nodes close the gap. */
+    void removed(int position, int value, int spacing) {
+        adjustPositions(position, -1);
+        start(GHOST, position, value, FADE_NANOS);
+        start(SHIFT, position, spacing, MOVE_NANOS);
+    }
+
+    /** The list of the given size was reversed: every node travels to its mirrored slot. */
+    void reversed(int size) {
+        finish(MIRROR);
+        start(MIRROR, size, 0, MOVE_NANOS * 2);
+    }
+
+    /** Snaps all movement to its end state, e.g. after an edit positions cannot describe. */
+    void settle() {
+        finish(SHIFT);
+        finish(GHOST);
+        finish(MIRROR);
+    }
+
+    void clear() {
+        count = 0;
+        clock.stop();
+    }
+
+    boolean isAnimating() {
+        return count > 0;
+    }
+
+    /** Frames the clock could not deliver on time and were skipped. */
+    long skippedFrames() {
+        return skippedFrames;
+    }
+
+    /** Highlight strength of a node at time now, from 0 (none) to 1 (full). */
+    float highlightAlpha(long nodeId, long now) {
+        for (int i = 0; i < count; i++) {
+            Animation animation = active[i];
+            if (animation.kind == HIGHLIGHT && animation.a == nodeId) {
+                long elapsed = now - animation.start;
+                if (elapsed <= HOLD_NANOS)
+                    return 1f;
+                return Math.max(0f, 1f - (float) (elapsed - HOLD_NANOS) / FADE_NANOS);
+            }
+        }
+        return 0f;
+    }
+
+    /** Horizontal offset from its resting place of the node at position, at time now. */
+    int offsetX(int position, int spacing, long now) {
+        double offset = 0;
+        for (int i = 0; i < count; i++) {
+            Animation animation = active[i];
+            if (animation.kind == SHIFT && position >= animation.a) {
+                offset += animation.b * (1 - progress(animation, now));
+            } else if (animation.kind == MIRROR && position < animation.a) {
+                offset += (animation.a - 1 - 2.0 * position) * spacing * (1 - progress(animation, now));
+            }
+        }
+        return (int) Math.round(offset);
+    }
+
+    /** True while a reverse is in flight, when any node may be anywhere on the row. */
+    boolean isMirroring() {
+        for (int i = 0; i < count; i++) {
+            if (active[i].kind == MIRROR)
+                return true;
+        }
+        return false;
+    }
+
+    /** Number of ghosts to draw; read each with ghostPosition, ghostValue and ghostAlpha. */
+    int ghostCount() {
+        int ghosts = 0;
+        for (int i = 0; i < count; i++) {
+            if (active[i].kind == GHOST) {
+                ghosts++;
+            }
+        }
+        return ghosts;
+    }
+
+    int ghostPosition(int ghost) {
+        return (int) ghostAt(ghost).a;
+    }
+
+    int ghostValue(int ghost) {
+        return (int) ghostAt(ghost).b;
+    }
+
+    float ghostAlpha(int ghost, long now) {
+        return 1f - (float) progress(ghostAt(ghost), now);
+    }
+
+    private Animation ghostAt(int ghost) {
+        for (int i = 0; i < count; i++) {
+            if (active[i].kind == GHOST && ghost-- == 0)
+                return active[i];
+        }
+        throw new IndexOutOfBoundsException("ghost " + ghost);
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        if (lastTick != 0) {
+            long late = now - lastTick - FRAME_MILLIS * 1_000_000L;
+            if (late > 0) {
+                skippedFrames += late / (FRAME_MILLIS * 1_000_000L);
+            }
+        }
+        lastTick = now;
+
+        for (int i = count - 1; i >= 0; i--) {
+            if (now - active[i].start >= active[i].duration) {
+                remove(i);
+            }
+        }
+        onFrame.run();
+        if (count == 0) {
+            clock.stop();
+            lastTick = 0;
+        }
+    }
+
+    private void start(int kind, long a, long b, long duration) {
+        if (count == MAX_ANIMATIONS) {
+            remove(0); // the oldest one ends early
+        }
+        Animation animation = active[count++];
+        animation.kind = kind;
+        animation.a = a;
+        animation.b = b;
+        animation.start = System.nanoTime();
+        animation.duration = duration;
+        if (!clock.isRunning()) {
+            clock.start();
+        }
+    }
+
+    // Keeps pending movement attached to the same nodes after positions move
+    private void adjustPositions(int position, int delta) {
+        for (int i = 0; i < count; i++) {
+            Animation animation = active[i];
+            if ((animation.kind == SHIFT || animation.kind == GHOST) && animation.a > position) {
+                animation.a += delta;
+            }
+        }
+        finish(MIRROR); // a mirror no longer lines up once the size changes
+    }
+
+    private void finish(int kind) {
+        for (int i = count - 1; i >= 0; i--) {
+            if (active[i].kind == kind) {
+                remove(i);
+            }
+        }
+    }
+
+    // Shifts the later entries down and recycles the removed one at the end
+    private void remove(int index) {
+        Animation removed = active[index];
+        System.arraycopy(active, index + 1, active, index, count - index - 1);
+        active[--count] = removed;
+    }
+
+    // Ease-out progress from 0 to 1
+    private static double progress(Animation animation, long now) {
+        double t = Math.min(1.0, Math.max(0.0, (double) (now - animation.start) / animation.duration));
+        return 1 - (1 - t) * (1 - t);
+    }
+
+    private static final class Animation {
+        int kind;
+        long a;
+        long b;
+        long start;
+        long duration;
+    }
+}
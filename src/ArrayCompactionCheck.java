@@ -0,0 +1,122 @@
+// ArrayCompactionCheck.java - Checks that ArrayLinkedList compacts after bulk removals
+package src;
+
+import java.util.*;
+
+/**
+ * Runnable check for ArrayLinkedList's compaction. Each seed builds a list
+ * with its slots scattered by random inserts and deletes, then removes most
+ * of it with removeIf or retainRange. The arrays must shrink, and the
+ * survivors must keep their order and ids. A run of random edits then has to
+ * agree with a java.util.ArrayList model, which exercises the rebuilt links.
+ * Exits with status 1 on the first failure.
+ */
+final class ArrayCompactionCheck {
+    private ArrayCompactionCheck() {
+    }
+
+    static void check(int nodes, long seed) {
+        Random random = new Random(seed);
+        ArrayLinkedList list = new ArrayLinkedList();
+        List<Integer> model = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            int value = random.nextInt(1000);
+            int position = random.nextInt(model.size() + 1);
+            list.insertAt(value, position);
+            model.add(position, value);
+            if (random.nextInt(3) == 0) {
+                position = random.nextInt(model.size());
+                list.deleteAt(position);
+                model.remove(position);
+            }
+        }
+
+        int before = list.capacity();
+        List<Long> ids = ids(list);
+        List<Long> expectedIds = new ArrayList<>();
+        if (random.nextBoolean()) {
+            for (int i = 0; i < model.size(); i++) {
+                if (model.get(i) % 8 == 0) {
+                    expectedIds.add(ids.get(i));
+                }
+            }
+            list.removeIf(value -> value % 8 != 0);
+            model.removeIf(value -> value % 8 != 0);
+        } else {
+            int from = random.nextInt(model.size() / 10 + 1);
+            int to = from + model.size() / 10;
+            expectedIds.addAll(ids.subList(from, to));
+            list.retainRange(from, to);
+            model = new ArrayList<>(model.subList(from, to));
+        }
+        if (list.capacity() >= before || list.capacity() < list.size())
+            fail("seed " + seed + ": capacity went from " + before + " to " + list.capacity() + " for "
+                    + list.size() + " nodes");
+        if (!ids(list).equals(expectedIds))
+            fail("seed " + seed + ": compacting changed the survivors' ids");
+        agree(list, model, "after compacting", seed);
+
+        for (int i = 0; i < nodes; i++) {
+            int position = random.nextInt(model.size() + 1);
+            if (random.nextBoolean() || model.isEmpty()) {
+                int value = random.nextInt(1000);
+                list.insertAt(value, position);
+                model.add(position, value);
+            } else {
+                position = Math.min(position, model.size() - 1);
+                list.deleteAt(position);
+                model.remove(position);
+            }
+        }
+        agree(list, model, "after editing the compacted list", seed);
+    }
+
+    private static List<Long> ids(ListEngine list) {
+        List<Long> ids = new ArrayList<>(list.size());
+        ListCursor cursor = list.cursor();
+        while (cursor.next()) {
+            ids.add(cursor.id());
+        }
+        return ids;
+    }
+
+    private static void agree(ArrayLinkedList list, List<Integer> model, String when, long seed) {
+        List<Integer> values = new ArrayList<>(list.size());
+        ListCursor cursor = list.cursor();
+        while (cursor.next()) {
+            values.add(cursor.data());
+        }
+        if (!values.equals(model) || list.size() != model.size())
+            fail("seed " + seed + ": list differs from the model " + when);
+
+        // Positions in the back half are reached over the prev links the compaction rebuilt
+        List<Integer> positional = new ArrayList<>(list.size());
+        for (int position = 0; position < list.size(); position++) {
+            positional.add(list.getNodes(position, 1).get(0).data);
+        }
+        if (!positional.equals(model))
+            fail("seed " + seed + ": positional reads differ from the model " + when);
+    }
+
+    private static void fail(String message) {
+        System.err.println("FAILED: " + message);
+        System.exit(1);
+    }
+
+    /** Usage: {@code java -cp out src.ArrayCompactionCheck [--seeds=N]} */
+    public static void main(String[] args) {
+        int seeds = 50;
+        for (String arg : args) {
+            if (arg.startsWith("--seeds=")) {
+                seeds = Integer.parseInt(arg.substring("--seeds=".length()));
+            } else {
+                System.err.println("Usage: ArrayCompactionCheck [--seeds=N]");
+                System.exit(2);
+            }
+        }
+        for (int seed = 0; seed < seeds; seed++) {
+            check(500 + seed * 40, seed);
+        }
+        System.out.printf("compaction: %d seeds ok%n", seeds);
+    }
+}
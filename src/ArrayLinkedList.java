@@ -0,0 +1,506 @@
+// ArrayLinkedList.java - Struct-of-arrays list engine
+package src;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+
+/**
+ * Doubly linked list whose nodes live in parallel primitive arrays instead of
+ * Node objects. A node is a slot index; its links are slot indices into the
+ * same arrays, and freed slots are chained through {@code next} for reuse.
+ * search() and getNodes() hand out detached Node views.
+ */
+public class ArrayLinkedList implements ListEngine {
+    private static final int NIL = -1;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] data;
+    private int[] next;
+    private int[] prev;
+    private int[] ids;
+
+    private int head = NIL;
+    private int tail = NIL;
+    private int size;
+    private int used; // slots below this index have been handed out at least once
+    private int freeHead = NIL;
+    private int idSequence;
+
+    private final ListChangeBus bus = new ListChangeBus();
+
+    public ArrayLinkedList() {
+        allocateArrays(DEFAULT_CAPACITY);
+    }
+
+    public void addChangeListener(ListChangeListener listener) {
+        bus.addListener(listener);
+    }
+
+    public void removeChangeListener(ListChangeListener listener) {
+        bus.removeListener(listener);
+    }
+
+    public ListChangeBus changeBus() {
+        return bus;
+    }
+
+    private void notifyInserted(ListChangeEvent.Op op, int slot, int position, int count, int last) {
+        if (bus.hasListeners()) {
+            bus.publish(new ListChangeEvent(bus.nextSequence(), op, ids[slot], data[slot], position,
+                    idAt(prev[slot]), idAt(next[last]), count));
+        }
+    }
+
+    // Captures the node before unlink() recycles its slot, then publishes once it is gone
+    private void removeSlot(ListChangeEvent.Op op, int slot, int position) {
+        ListChangeEvent event = bus.hasListeners()
+                ? new ListChangeEvent(bus.nextSequence(), op, ids[slot], data[slot], position, idAt(prev[slot]),
+                        idAt(next[slot]), 1)
+                : null;
+        unlink(slot);
+        if (event != null) {
+            bus.publish(event);
+        }
+    }
+
+    private void notifyChanged(ListChangeEvent.Op op, int count) {
+        if (bus.hasListeners()) {
+            bus.publish(ListChangeEvent.of(bus.nextSequence(), op, count));
+        }
+    }
+
+    private long idAt(int slot) {
+        return slot == NIL ? Node.NO_ID : ids[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public ListCursor cursor() {
+        return new ListCursor() {
+            private int upcoming = head;
+            private int current = NIL;
+
+            @Override
+            public boolean next() {
+                if (upcoming == NIL)
+                    return false;
+                current = upcoming;
+                upcoming = next[current];
+                HopCounter.hop();
+                return true;
+            }
+
+            @Override
+            public int data() {
+                return data[current];
+            }
+
+            @Override
+            public long id() {
+                return ids[current];
+            }
+        };
+    }
+
+    public boolean hasPrevLinks() {
+        return true;
+    }
+
+    // Walks to the window from whichever end is closer and builds detached views
+    public List<Node> getNodes(int from, int count) {
+        from = Math.max(0, from);
+        count = Math.max(0, Math.min(count, size - from));
+        List<Node> list = new ArrayList<>(count);
+        int slot = count == 0 ? NIL : slotAt(from);
+        Node previous = null;
+        for (int i = 0; i < count; i++) {
+            Node view = new Node(data[slot], ids[slot]);
+            if (previous != null) {
+                previous.next = view;
+                view.prev = previous;
+            }
+            list.add(view);
+            previous = view;
+            slot = next[slot];
+            HopCounter.hop();
+        }
+        return list;
+    }
+
+    public int capacity() {
+        return data.length;
+    }
+
+    public void insertStart(int value) {
+        int slot = allocate(value);
+        next[slot] = head;
+        prev[slot] = NIL;
+        if (head != NIL) {
+            prev[head] = slot;
+        } else {
+            tail = slot;
+        }
+        head = slot;
+        size++;
+        notifyInserted(ListChangeEvent.Op.INSERT_START, slot, 0, 1, slot);
+    }
+
+    public void insertEnd(int value) {
+        int slot = allocate(value);
+        linkAfter(tail, slot);
+        notifyInserted(ListChangeEvent.Op.INSERT_END, slot, size - 1, 1, slot);
+    }
+
+    public void insertAt(int value, int position) {
+        if (position == 0) {
+            insertStart(value);
+            return;
+        }
+        if (position > size || head == NIL) {
+            insertEnd(value);
+            return;
+        }
+
+        // a negative position inserts right after the head
+        int before;
+        if (position < 0) {
+            before = head;
+            position = 1;
+        } else {
+            before = slotAt(position - 1);
+        }
+        int slot = allocate(value);
+        linkAfter(before, slot);
+        notifyInserted(ListChangeEvent.Op.INSERT_AT, slot, position, 1, slot);
+    }
+
+    public void deleteValue(int value) {
+        int slot = head;
+        int position = 0;
+        HopCounter.compare();
+        while (slot != NIL && data[slot] != value) {
+            slot = next[slot];
+            position++;
+            HopCounter.hop();
+            HopCounter.compare();
+        }
+
+        if (slot != NIL) {
+            removeSlot(ListChangeEvent.Op.DELETE_VALUE, slot, position);
+        }
+    }
+
+    public void deleteAt(int position) {
+        if (position < 0 || position >= size)
+            return;
+
+        int slot = slotAt(position);
+        removeSlot(ListChangeEvent.Op.DELETE_AT, slot, position);
+    }
+
+    public void reverse() {
+        int slot = head;
+        while (slot != NIL) {
+            int following = next[slot];
+            next[slot] = prev[slot];
+            prev[slot] = following;
+            slot = following;
+            HopCounter.hop();
+        }
+
+        int oldHead = head;
+        head = tail;
+        tail = oldHead;
+        notifyChanged(ListChangeEvent.Op.REVERSE, size);
+    }
+
+    public void insertAll(int[] values) {
+        insertAllAt(size, values);
+    }
+
+    /**
+     * Links values in as one block whose first element lands at position
+     * (clamped to the list bounds), then fires a single BULK_INSERT event.
+     */
+    public void insertAllAt(int position, int[] values) {
+        if (values.length == 0)
+            return;
+        position = Math.max(0, Math.min(position, size));
+
+        int first = allocate(values[0]);
+        int last = first;
+        prev[first] = NIL;
+        for (int i = 1; i < values.length; i++) {
+            int slot = allocate(values[i]);
+            prev[slot] = last;
+            next[last] = slot;
+            last = slot;
+        }
+
+        if (head == NIL) {
+            next[last] = NIL;
+            head = first;
+            tail = last;
+        } else if (position <= 0) {
+            next[last] = head;
+            prev[head] = last;
+            head = first;
+        } else if (position >= size) {
+            next[last] = NIL;
+            next[tail] = first;
+            prev[first] = tail;
+            tail = last;
+        } else {
+            int before = slotAt(position - 1);
+            int after = next[before];
+            next[last] = after;
+            prev[after] = last;
+            prev[first] = before;
+            next[before] = first;
+        }
+        size += values.length;
+        notifyInserted(ListChangeEvent.Op.BULK_INSERT, first, position, values.length, last);
+    }
+
+    /** Removes every node whose value matches in one pass; fires one BULK_REMOVE event. */
+    public int removeIf(IntPredicate filter) {
+        int kept = NIL; // last surviving slot so far
+        int removed = 0;
+        int slot = head;
+        while (slot != NIL) {
+            int following = next[slot];
+            HopCounter.hop();
+            HopCounter.compare();
+            if (filter.test(data[slot])) {
+                release(slot);
+                removed++;
+            } else {
+                prev[slot] = kept;
+                if (kept == NIL) {
+                    head = slot;
+                } else {
+                    next[kept] = slot;
+                }
+                kept = slot;
+            }
+            slot = following;
+        }
+
+        if (removed == 0)
+            return 0;
+        if (kept == NIL) {
+            head = NIL;
+        } else {
+            next[kept] = NIL;
+        }
+        tail = kept;
+        size -= removed;
+        compactIfSparse();
+        notifyChanged(ListChangeEvent.Op.BULK_REMOVE, removed);
+        return removed;
+    }
+
+    /** Keeps only positions from (inclusive) to to (exclusive); fires one BULK_REMOVE event. */
+    public int retainRange(int from, int to) {
+        from = Math.max(0, from);
+        to = Math.min(size, to);
+        int kept = Math.max(0, to - from);
+        int removed = size - kept;
+        if (removed == 0)
+            return 0;
+
+        int first = kept == 0 ? NIL : slotAt(from);
+        int last = first;
+        for (int i = 1; i < kept; i++) {
+            last = next[last];
+            HopCounter.hop();
+        }
+        releaseRange(head, first);
+        releaseRange(last == NIL ? NIL : next[last], NIL);
+        if (first != NIL) {
+            prev[first] = NIL;
+            next[last] = NIL;
+        }
+        head = first;
+        tail = last;
+        size = kept;
+        compactIfSparse();
+        notifyChanged(ListChangeEvent.Op.BULK_REMOVE, removed);
+        return removed;
+    }
+
+    public Node search(int value) {
+        for (int slot = head; slot != NIL; slot = next[slot]) {
+            HopCounter.compare();
+            if (data[slot] == value)
+                return new Node(data[slot], ids[slot]);
+            HopCounter.hop();
+        }
+        return null;
+    }
+
+    public void clear() {
+        int removed = size;
+        allocateArrays(DEFAULT_CAPACITY);
+        head = NIL;
+        tail = NIL;
+        size = 0;
+        used = 0;
+        freeHead = NIL;
+        notifyChanged(ListChangeEvent.Op.CLEAR, removed);
+    }
+
+    // After a bulk removal leaves three quarters of the slots free, gives them back
+    private void compactIfSparse() {
+        if (data.length > DEFAULT_CAPACITY && size < data.length / 4) {
+            compact();
+        }
+    }
+
+    /**
+     * Renumbers the live nodes into slots 0..size-1 in traversal order so that
+     * a front-to-back scan touches the arrays sequentially, in arrays with
+     * half as much room again for growth. Ids are kept, so views and events
+     * are unaffected.
+     */
+    private void compact() {
+        int capacity = Math.max(DEFAULT_CAPACITY, size + (size >> 1));
+        int[] newData = new int[capacity];
+        int[] newIds = new int[capacity];
+        int[] newNext = new int[capacity];
+        int[] newPrev = new int[capacity];
+
+        int index = 0;
+        for (int slot = head; slot != NIL; slot = next[slot]) {
+            newData[index] = data[slot];
+            newIds[index] = ids[slot];
+            newPrev[index] = index - 1;
+            newNext[index] = index + 1;
+            index++;
+            HopCounter.hop();
+        }
+
+        data = newData;
+        ids = newIds;
+        next = newNext;
+        prev = newPrev;
+        head = size > 0 ? 0 : NIL;
+        tail = size - 1;
+        if (size > 0) {
+            next[tail] = NIL;
+        }
+        used = size;
+        freeHead = NIL;
+    }
+
+    private int allocate(int value) {
+        int slot;
+        if (freeHead != NIL) {
+            slot = freeHead;
+            freeHead = next[slot];
+        } else {
+            if (used == data.length) {
+                grow();
+            }
+            slot = used++;
+        }
+        data[slot] = value;
+        ids[slot] = nextId();
+        return slot;
+    }
+
+    // Ids wrap after 2^32 slots; skip NO_ID, which stands for "no node"
+    private int nextId() {
+        if (++idSequence == Node.NO_ID) {
+            ++idSequence;
+        }
+        return idSequence;
+    }
+
+    private void release(int slot) {
+        next[slot] = freeHead;
+        prev[slot] = NIL;
+        freeHead = slot;
+    }
+
+    // Frees the slots from start up to, but not including, end
+    private void releaseRange(int start, int end) {
+        int slot = start;
+        while (slot != end) {
+            int following = next[slot];
+            release(slot);
+            slot = following;
+            HopCounter.hop();
+        }
+    }
+
+    private void allocateArrays(int capacity) {
+        data = new int[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        ids = new int[capacity];
+    }
+
+    private void grow() {
+        int capacity = data.length + (data.length >> 1) + 1;
+        data = Arrays.copyOf(data, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+    }
+
+    // Links slot after the given slot, or into an empty list when before is NIL.
+    private void linkAfter(int before, int slot) {
+        prev[slot] = before;
+        if (before == NIL) {
+            next[slot] = NIL;
+            head = slot;
+            tail = slot;
+        } else {
+            next[slot] = next[before];
+            if (next[before] != NIL) {
+                prev[next[before]] = slot;
+            } else {
+                tail = slot;
+            }
+            next[before] = slot;
+        }
+        size++;
+    }
+
+    private void unlink(int slot) {
+        if (prev[slot] != NIL) {
+            next[prev[slot]] = next[slot];
+        } else {
+            head = next[slot];
+        }
+        if (next[slot] != NIL) {
+            prev[next[slot]] = prev[slot];
+        } else {
+            tail = prev[slot];
+        }
+        size--;
+        release(slot);
+    }
+
+    // Walks from whichever end is closer to the requested position.
+    private int slotAt(int index) {
+        int slot;
+        if (index < size / 2) {
+            slot = head;
+            for (int i = 0; i < index; i++) {
+                slot = next[slot];
+                HopCounter.hop();
+            }
+        } else {
+            slot = tail;
+            for (int i = size - 1; i > index; i--) {
+                slot = prev[slot];
+                HopCounter.hop();
+            }
+        }
+        return slot;
+    }
+}
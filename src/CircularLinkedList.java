@@ -2,185 +2,597 @@
 package src;
 
 import java.util.*;
+import java.util.function.IntPredicate;
 
-public class CircularLinkedList {
+public class CircularLinkedList implements ListEngine {
+    // The ring is anchored at its last node, so both ends are reachable
+    // without walking it; head mirrors tail.next for callers and is kept in
+    // step by setTail and the link helpers. Read it, do not assign it.
     public Node head;
-    private List<NodeChangeListener> listeners = new ArrayList<>();
+    private Node tail;
+    private int size;
+    // Optional value -> node index. Only while it is on do nodes keep a prev
+    // back-link, so an indexed delete can unlink without walking the ring for
+    // the predecessor; with it off the ring is singly linked and prev is null.
+    private ValueIndex index;
+    private PositionIndex positions; // optional skip lanes for positional lookups
+    private final ListChangeBus bus = new ListChangeBus();
 
-    public interface NodeChangeListener {
-        void onNodeChanged(String operation, String nodeId);
+    public void addChangeListener(ListChangeListener listener) {
+        bus.addListener(listener);
     }
 
-    public void addChangeListener(NodeChangeListener listener) {
-        listeners.add(listener);
+    public void removeChangeListener(ListChangeListener listener) {
+        bus.removeListener(listener);
     }
 
-    private void notifyListeners(String operation, String nodeId) {
-        for (NodeChangeListener listener : listeners) {
-            listener.onNodeChanged(operation, nodeId);
+    public ListChangeBus changeBus() {
+        return bus;
+    }
+
+    // before is the node now linking to node; the tail for the head
+    private void notifyInserted(ListChangeEvent.Op op, Node before, Node node, int position) {
+        if (bus.hasListeners()) {
+            bus.publish(new ListChangeEvent(bus.nextSequence(), op, node.id, node.data, position,
+                    Node.idOf(before), Node.idOf(node.next), 1));
+        }
+    }
+
+    // Removed nodes keep their old next link, which with before names the neighbours now joined
+    private void notifyRemoved(ListChangeEvent.Op op, Node before, Node node, int position) {
+        if (bus.hasListeners()) {
+            bus.publish(new ListChangeEvent(bus.nextSequence(), op, node.id, node.data, position,
+                    Node.idOf(before), Node.idOf(node.next), 1));
+        }
+    }
+
+    private void notifyBulkInserted(Node before, Node first, Node last, int position, int count) {
+        if (bus.hasListeners()) {
+            bus.publish(new ListChangeEvent(bus.nextSequence(), ListChangeEvent.Op.BULK_INSERT, first.id, first.data,
+                    position, Node.idOf(before), Node.idOf(last.next), count));
+        }
+    }
+
+    private void notifyChanged(ListChangeEvent.Op op, int count) {
+        if (bus.hasListeners()) {
+            bus.publish(ListChangeEvent.of(bus.nextSequence(), op, count));
         }
     }
 
+    public Node getHead() {
+        return head;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public ListCursor cursor() {
+        return new NodeCursor(head, size);
+    }
+
+    public boolean isCircular() {
+        return true;
+    }
+
+    public boolean supportsValueIndex() {
+        return true;
+    }
+
+    public boolean supportsPositionIndex() {
+        return true;
+    }
+
+    /**
+     * Turns the value index on or off, together with the prev back-links it
+     * relies on. While it is on, search and deleteValue are expected O(1) for
+     * a distinct value; a value held k times costs about k times the gap
+     * between its copies. Either way they act on the first match in ring
+     * order.
+     */
+    public boolean setValueIndexEnabled(boolean enabled) {
+        if (!enabled) {
+            Node temp = head;
+            for (int i = 0; index != null && i < size; i++) {
+                temp.prev = null;
+                temp = temp.next;
+                HopCounter.hop();
+            }
+            index = null;
+        } else if (index == null) {
+            index = new ValueIndex();
+            Node before = tail;
+            Node temp = head;
+            for (int i = 0; i < size; i++) {
+                index.add(temp);
+                temp.prev = before;
+                before = temp;
+                temp = temp.next;
+                HopCounter.hop();
+            }
+        }
+        return true;
+    }
+
+    public boolean isValueIndexEnabled() {
+        return index != null;
+    }
+
+    public long valueIndexBytes() {
+        return index == null ? 0 : index.estimatedBytes();
+    }
+
+    /**
+     * Turns the skip-lane position index on or off. While it is on, insertAt
+     * and deleteAt find their node in expected O(log n) hops, and every insert
+     * or delete pays O(log n) to keep the lanes current.
+     */
+    public boolean setPositionIndexEnabled(boolean enabled) {
+        if (!enabled) {
+            positions = null;
+        } else if (positions == null) {
+            positions = new PositionIndex(); // built from the ring on first use
+        }
+        return true;
+    }
+
+    public boolean isPositionIndexEnabled() {
+        return positions != null;
+    }
+
     public List<Node> getNodes() {
         List<Node> list = new ArrayList<>();
-        if (head == null)
+        if (tail == null)
             return list;
         Node temp = head;
         do {
             list.add(temp);
             temp = temp.next;
+            HopCounter.hop();
         } while (temp != head);
         return list;
     }
 
+    public List<Node> getNodes(int from, int count) {
+        from = Math.max(0, from);
+        count = Math.max(0, Math.min(count, size - from));
+        List<Node> list = new ArrayList<>(count);
+        Node temp = count == 0 ? null : nodeAt(from);
+        for (int i = 0; i < count; i++) {
+            list.add(temp);
+            temp = temp.next;
+            HopCounter.hop();
+        }
+        return list;
+    }
+
     public void insertStart(int data) {
-        Node newNode = new Node(data);
-        if (head == null) {
-            head = newNode;
-            newNode.next = head;
-        } else {
-            Node temp = head;
-            while (temp.next != head) {
-                temp = temp.next;
-            }
-            temp.next = newNode;
-            newNode.next = head;
-            head = newNode;
+        Node newNode = linkAfterTail(data);
+        if (positions != null) {
+            positions.inserted(0, newNode);
         }
-        notifyListeners("ins-start", newNode.getId());
+        notifyInserted(ListChangeEvent.Op.INSERT_START, tail, newNode, 0);
     }
 
     public void insertEnd(int data) {
-        Node newNode = new Node(data);
-        if (head == null) {
-            head = newNode;
-            newNode.next = head;
-        } else {
-            Node temp = head;
-            while (temp.next != head) {
-                temp = temp.next;
-            }
-            temp.next = newNode;
-            newNode.next = head;
+        Node newNode = linkAfterTail(data);
+        Node before = tail;
+        setTail(newNode);
+        if (positions != null) {
+            positions.inserted(size - 1, newNode);
         }
-        notifyListeners("ins-end", newNode.getId());
+        notifyInserted(ListChangeEvent.Op.INSERT_END, before, newNode, size - 1);
     }
 
+    /**
+     * Inserts at position, appending when it is past the end. As it always
+     * has, any position but 0 on an empty ring throws NullPointerException.
+     */
     public void insertAt(int data, int position) {
         if (position == 0) {
             insertStart(data);
             return;
         }
+        if (tail == null)
+            throw new NullPointerException("insertAt(" + position + ") on an empty ring");
 
-        Node newNode = new Node(data);
-        Node temp = head;
-        for (int i = 0; i < position - 1 && temp.next != head; i++) {
-            temp = temp.next;
+        Node newNode;
+        Node before;
+        if (position >= size) {
+            newNode = linkAfterTail(data);
+            before = tail;
+            setTail(newNode);
+            position = size - 1;
+        } else {
+            // a negative position inserts right after the head
+            Node temp;
+            if (position < 0) {
+                temp = tail.next;
+                position = 1;
+            } else {
+                temp = nodeAt(position - 1);
+            }
+            newNode = newNode(data);
+            newNode.next = temp.next;
+            if (index != null) {
+                newNode.prev = temp;
+                temp.next.prev = newNode;
+            }
+            temp.next = newNode;
+            if (temp == tail) {
+                setTail(newNode);
+            }
+            size++;
+            before = temp;
         }
-
-        newNode.next = temp.next;
-        temp.next = newNode;
-        notifyListeners("ins-pos", newNode.getId());
+        if (positions != null) {
+            positions.inserted(position, newNode);
+        }
+        notifyInserted(ListChangeEvent.Op.INSERT_AT, before, newNode, position);
     }
 
     public void deleteValue(int data) {
-        if (head == null)
+        if (tail == null)
             return;
 
-        if (head.data == data) {
-            String deletedId = head.getId();
-            if (head.next == head) {
-                head = null;
-            } else {
-                Node temp = head;
-                while (temp.next != head) {
-                    temp = temp.next;
+        if (index != null) {
+            Node found = index.first(data, head);
+            if (found != null) {
+                Node before = found.prev;
+                if (found == head) {
+                    unlinkHead();
+                } else {
+                    unlinkAfter(before, -1);
                 }
-                temp.next = head.next;
-                head = head.next;
+                notifyRemoved(ListChangeEvent.Op.DELETE_VALUE, before, found, -1);
             }
-            notifyListeners("del-value", deletedId);
+            return;
+        }
+
+        HopCounter.compare();
+        if (head.data == data) {
+            Node removed = head;
+            Node before = tail;
+            unlinkHead();
+            notifyRemoved(ListChangeEvent.Op.DELETE_VALUE, before, removed, 0);
             return;
         }
 
         Node temp = head;
+        int position = 1;
         while (temp.next != head && temp.next.data != data) {
             temp = temp.next;
+            position++;
+            HopCounter.hop();
+            HopCounter.compare();
         }
 
-        if (temp.next.data == data) {
-            String deletedId = temp.next.getId();
-            temp.next = temp.next.next;
-            notifyListeners("del-value", deletedId);
+        if (temp.next != head) {
+            Node removed = temp.next;
+            unlinkAfter(temp, position);
+            notifyRemoved(ListChangeEvent.Op.DELETE_VALUE, temp, removed, position);
         }
     }
 
     public void deleteAt(int position) {
-        if (head == null)
+        if (tail == null || position >= size)
             return;
 
         if (position == 0) {
-            String deletedId = head.getId();
-            if (head.next == head) {
-                head = null;
-            } else {
-                Node temp = head;
-                while (temp.next != head) {
-                    temp = temp.next;
-                }
-                temp.next = head.next;
-                head = head.next;
-            }
-            notifyListeners("del-position", deletedId);
+            Node removed = head;
+            Node before = tail;
+            unlinkHead();
+            notifyRemoved(ListChangeEvent.Op.DELETE_AT, before, removed, 0);
             return;
         }
 
-        Node temp = head;
-        for (int i = 0; i < position - 1 && temp.next != head; i++) {
-            temp = temp.next;
+        // a negative position deletes the node right after the head
+        Node temp;
+        if (position < 0) {
+            temp = head;
+            position = 1;
+        } else {
+            temp = nodeAt(position - 1);
         }
 
         if (temp.next != head) {
-            String deletedId = temp.next.getId();
-            temp.next = temp.next.next;
-            notifyListeners("del-position", deletedId);
+            Node removed = temp.next;
+            unlinkAfter(temp, position);
+            notifyRemoved(ListChangeEvent.Op.DELETE_AT, temp, removed, position);
         }
     }
 
     public void reverse() {
-        if (head == null || head.next == head)
+        if (tail == null || tail.next == tail)
             return;
 
-        Node prev = null;
+        Node previous = tail;
         Node current = head;
         Node next = null;
 
         do {
             next = current.next;
-            current.next = prev;
-            prev = current;
+            current.next = previous;
+            if (index != null) {
+                current.prev = next;
+            }
+            previous = current;
             current = next;
+            HopCounter.hop();
         } while (current != head);
 
-        head.next = prev;
-        head = prev;
-        notifyListeners("reverse", null);
+        setTail(head);
+        if (positions != null) {
+            positions.invalidate();
+        }
+        notifyChanged(ListChangeEvent.Op.REVERSE, size);
+    }
+
+    public void insertAll(int[] values) {
+        insertAllAt(size, values);
+    }
+
+    /**
+     * Links values in as one block whose first element lands at position
+     * (clamped to the ring bounds), then fires a single BULK_INSERT event.
+     */
+    public void insertAllAt(int position, int[] values) {
+        if (values.length == 0)
+            return;
+        position = Math.max(0, Math.min(position, size));
+
+        Node first = newNode(values[0]);
+        Node last = first;
+        for (int i = 1; i < values.length; i++) {
+            Node newNode = newNode(values[i]);
+            if (index != null) {
+                newNode.prev = last;
+            }
+            last.next = newNode;
+            last = newNode;
+        }
+
+        Node before;
+        if (tail == null) {
+            before = last;
+            last.next = first;
+            if (index != null) {
+                first.prev = last;
+            }
+            setTail(last);
+        } else {
+            // Both ends splice in between the tail and the head
+            before = position <= 0 || position >= size ? tail : nodeAt(position - 1);
+            last.next = before.next;
+            if (index != null) {
+                before.next.prev = last;
+                first.prev = before;
+            }
+            before.next = first;
+            if (position >= size) {
+                tail = last;
+            }
+            head = tail.next;
+        }
+        size += values.length;
+        if (positions != null) {
+            positions.invalidate();
+        }
+        notifyBulkInserted(before, first, last, position, values.length);
+    }
+
+    /** Removes every node whose value matches in one pass; fires one BULK_REMOVE event. */
+    public int removeIf(IntPredicate filter) {
+        if (tail == null)
+            return 0;
+
+        Node firstKept = null;
+        Node kept = null; // last surviving node so far
+        int removed = 0;
+        Node temp = head;
+        for (int i = 0; i < size; i++) {
+            Node following = temp.next;
+            HopCounter.hop();
+            HopCounter.compare();
+            if (filter.test(temp.data)) {
+                if (index != null) {
+                    index.remove(temp);
+                }
+                removed++;
+            } else {
+                if (index != null) {
+                    temp.prev = kept;
+                }
+                if (kept == null) {
+                    firstKept = temp;
+                } else {
+                    kept.next = temp;
+                }
+                kept = temp;
+            }
+            temp = following;
+        }
+
+        if (removed == 0) {
+            // Nothing changed, but the walk rewrote the head's back-link
+            if (index != null) {
+                head.prev = tail;
+            }
+            return 0;
+        }
+        if (kept != null) {
+            kept.next = firstKept;
+            if (index != null) {
+                firstKept.prev = kept;
+            }
+        }
+        setTail(kept);
+        size -= removed;
+        if (positions != null) {
+            positions.invalidate();
+        }
+        notifyChanged(ListChangeEvent.Op.BULK_REMOVE, removed);
+        return removed;
+    }
+
+    /** Keeps only positions from (inclusive) to to (exclusive); fires one BULK_REMOVE event. */
+    public int retainRange(int from, int to) {
+        from = Math.max(0, from);
+        to = Math.min(size, to);
+        int kept = Math.max(0, to - from);
+        int removed = size - kept;
+        if (removed == 0)
+            return 0;
+
+        if (kept == 0) {
+            setTail(null);
+            if (index != null) {
+                index.clear();
+            }
+        } else {
+            Node first = nodeAt(from);
+            Node last = first;
+            for (int i = 1; i < kept; i++) {
+                last = last.next;
+                HopCounter.hop();
+            }
+            if (index != null) {
+                for (Node temp = last.next; temp != first; temp = temp.next) {
+                    index.remove(temp);
+                    HopCounter.hop();
+                }
+            }
+            last.next = first;
+            if (index != null) {
+                first.prev = last;
+            }
+            setTail(last);
+        }
+        size = kept;
+        if (positions != null) {
+            positions.invalidate();
+        }
+        notifyChanged(ListChangeEvent.Op.BULK_REMOVE, removed);
+        return removed;
     }
 
     public Node search(int data) {
-        if (head == null)
+        if (index != null)
+            return index.first(data, head);
+        if (tail == null)
             return null;
         Node temp = head;
         do {
+            HopCounter.compare();
             if (temp.data == data)
                 return temp;
             temp = temp.next;
+            HopCounter.hop();
         } while (temp != head);
         return null;
     }
 
     public void clear() {
-        head = null;
-        notifyListeners("clear", null);
+        int removed = size;
+        setTail(null);
+        size = 0;
+        if (index != null) {
+            index.clear();
+        }
+        if (positions != null) {
+            positions.clear();
+        }
+        notifyChanged(ListChangeEvent.Op.CLEAR, removed);
+    }
+
+    // Links a new node between the tail and the head; it becomes the new head
+    // unless the caller also moves the tail onto it.
+    private Node linkAfterTail(int data) {
+        Node newNode = newNode(data);
+        if (tail == null) {
+            newNode.next = newNode;
+            tail = newNode;
+        } else {
+            newNode.next = tail.next;
+            if (index != null) {
+                tail.next.prev = newNode;
+            }
+            tail.next = newNode;
+        }
+        if (index != null) {
+            newNode.prev = tail;
+        }
+        head = newNode;
+        size++;
+        return newNode;
+    }
+
+    // Moves the anchor; node.next must already be the first node
+    private void setTail(Node node) {
+        tail = node;
+        head = node == null ? null : node.next;
+    }
+
+    private Node newNode(int data) {
+        Node newNode = new Node(data);
+        if (index != null) {
+            index.add(newNode);
+        }
+        return newNode;
+    }
+
+    private Node nodeAt(int position) {
+        if (positions != null) {
+            if (positions.isStale()) {
+                positions.rebuild(head, size);
+            }
+            return positions.nodeAt(head, position);
+        }
+        Node temp = head;
+        for (int i = 0; i < position; i++) {
+            temp = temp.next;
+            HopCounter.hop();
+        }
+        return temp;
+    }
+
+    private void unlinkHead() {
+        if (tail.next == tail) {
+            if (index != null) {
+                index.remove(tail);
+            }
+            setTail(null);
+            size--;
+            if (positions != null) {
+                positions.removed(0);
+            }
+        } else {
+            unlinkAfter(tail, 0);
+        }
+    }
+
+    // position is that of the removed node, or -1 when the caller does not know it
+    private void unlinkAfter(Node node, int position) {
+        Node removed = node.next;
+        if (index != null) {
+            index.remove(removed);
+        }
+        node.next = removed.next;
+        if (index != null) {
+            removed.next.prev = node;
+        }
+        if (removed == tail) {
+            tail = node;
+        }
+        head = tail.next;
+        size--;
+        if (positions == null) {
+            return;
+        }
+        if (position < 0) {
+            positions.invalidate();
+        } else {
+            positions.removed(position);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,254 @@
+// ComplexityPanel.java - Log-log charts of ComplexityProfiler curves for every list type
+package src;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Profiles one operation on every list type in the background and plots the
+ * results as they arrive: link hops plus comparisons against n above, median
+ * wall time against n below, both log-log so each growth class is a straight
+ * line of its own slope. The legend names the class fitted to each curve.
+ */
+final class ComplexityPanel extends JPanel {
+    private static final String[] TYPES = { "Singly", "Doubly", "Circular", "Array", "Off-Heap", "Concurrent" };
+    private static final Color[] COLORS = { new Color(52, 152, 219), new Color(46, 204, 113),
+            new Color(241, 196, 15), new Color(231, 76, 60), new Color(155, 89, 182), new Color(230, 126, 34) };
+    private static final int MIN_SIZE = 64;
+    private static final int MAX_SIZE = 16_384;
+    private static final int REPETITIONS = 31;
+
+    private final JComboBox<ComplexityProfiler.Operation> operation;
+    private final JCheckBox indexes;
+    private final JButton runButton;
+    private final JLabel status;
+    private final Chart hopChart;
+    private final Chart timeChart;
+
+    ComplexityPanel() {
+        super(new BorderLayout());
+        setBackground(new Color(40, 40, 60));
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        operation = new JComboBox<>(ComplexityProfiler.Operation.values());
+        operation.setSelectedItem(ComplexityProfiler.Operation.INSERT_START);
+        indexes = new JCheckBox("With indexes");
+        indexes.setOpaque(false);
+        indexes.setForeground(Color.WHITE);
+        runButton = new JButton("▶ Run");
+        runButton.setBackground(new Color(46, 204, 113));
+        runButton.setForeground(Color.WHITE);
+        runButton.addActionListener(e -> run());
+        status = new JLabel(HopCounter.ENABLED ? "Pick an operation and press Run"
+                : "Hop counting is off: start with -Dlistviz.hops=true to chart hops");
+        status.setForeground(Color.LIGHT_GRAY);
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controls.setOpaque(false);
+        JLabel operationLabel = new JLabel("Operation:");
+        operationLabel.setForeground(Color.WHITE);
+        controls.add(operationLabel);
+        controls.add(operation);
+        controls.add(indexes);
+        controls.add(runButton);
+        controls.add(status);
+
+        hopChart = new Chart("Hops + comparisons", "", 1);
+        timeChart = new Chart("Median time", " µs", 0.01);
+        JPanel charts = new JPanel(new GridLayout(2, 1, 0, 10));
+        charts.setOpaque(false);
+        charts.add(hopChart);
+        charts.add(timeChart);
+
+        add(controls, BorderLayout.NORTH);
+        add(charts, BorderLayout.CENTER);
+        setPreferredSize(new Dimension(760, 640));
+    }
+
+    // One profile at a time, since they share the hop counters
+    private void run() {
+        ComplexityProfiler.Operation selected = (ComplexityProfiler.Operation) operation.getSelectedItem();
+        boolean withIndexes = indexes.isSelected();
+        int[] sizes = ComplexityProfiler.doublingSizes(MIN_SIZE, MAX_SIZE);
+        runButton.setEnabled(false);
+        operation.setEnabled(false);
+        indexes.setEnabled(false);
+        hopChart.clear();
+        timeChart.clear();
+        status.setText("Profiling " + selected + "...");
+
+        new SwingWorker<Void, ComplexityProfiler.Curve>() {
+            @Override
+            protected Void doInBackground() {
+                for (String type : TYPES) {
+                    ComplexityProfiler.Curve curve = ComplexityProfiler.profile(type, selected, sizes, REPETITIONS,
+                            withIndexes);
+                    if (curve != null) {
+                        publish(curve);
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            protected void process(List<ComplexityProfiler.Curve> curves) {
+                for (ComplexityProfiler.Curve curve : curves) {
+                    Color color = COLORS[Arrays.asList(TYPES).indexOf(curve.listType)];
+                    if (curve.hops != null) {
+                        double[] work = new double[sizes.length];
+                        for (int i = 0; i < work.length; i++) {
+                            work[i] = curve.hops[i] + curve.comparisons[i];
+                        }
+                        hopChart.add(curve.listType, color, sizes, work, curve.hopGrowth);
+                    }
+                    double[] micros = new double[sizes.length];
+                    for (int i = 0; i < micros.length; i++) {
+                        micros[i] = curve.nanos[i] / 1e3;
+                    }
+                    timeChart.add(curve.listType, color, sizes, micros, curve.timeGrowth);
+                    status.setText("Profiled " + curve.listType);
+                }
+            }
+
+            @Override
+            protected void done() {
+                runButton.setEnabled(true);
+                operation.setEnabled(true);
+                indexes.setEnabled(true);
+                try {
+                    get();
+                    status.setText(selected + (withIndexes ? " with indexes" : "") + " from n=" + MIN_SIZE
+                            + " to n=" + MAX_SIZE);
+                } catch (Exception e) {
+                    status.setText("Profile failed: " + e.getCause());
+                }
+            }
+        }.execute();
+    }
+
+    /** A log-log line chart of one measure against n, one series per list type. */
+    private static final class Chart extends JComponent {
+        private static final int LEFT = 64;
+        private static final int RIGHT = 150; // room for the legend
+        private static final int TOP = 28;
+        private static final int BOTTOM = 30;
+
+        private final String title;
+        private final String unit;
+        private final double floor; // lowest value plotted; smaller ones sit on it
+        private final List<Series> series = new ArrayList<>();
+
+        private static final class Series {
+            final String name;
+            final Color color;
+            final int[] sizes;
+            final double[] values;
+            final ComplexityProfiler.Growth growth;
+
+            Series(String name, Color color, int[] sizes, double[] values, ComplexityProfiler.Growth growth) {
+                this.name = name;
+                this.color = color;
+                this.sizes = sizes;
+                this.values = values;
+                this.growth = growth;
+            }
+        }
+
+        Chart(String title, String unit, double floor) {
+            this.title = title;
+            this.unit = unit;
+            this.floor = floor;
+            setOpaque(true);
+        }
+
+        void add(String name, Color color, int[] sizes, double[] values, ComplexityProfiler.Growth growth) {
+            series.add(new Series(name, color, sizes, values, growth));
+            repaint();
+        }
+
+        void clear() {
+            series.clear();
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setColor(new Color(30, 30, 40));
+            g2.fillRect(0, 0, getWidth(), getHeight());
+            g2.setFont(new Font("Arial", Font.BOLD, 13));
+            g2.setColor(Color.WHITE);
+            g2.drawString(title + " vs n (log-log)", LEFT, 18);
+
+            int width = getWidth() - LEFT - RIGHT;
+            int height = getHeight() - TOP - BOTTOM;
+            if (width <= 0 || height <= 0 || series.isEmpty()) {
+                g2.dispose();
+                return;
+            }
+
+            // Axis ranges snapped out to whole decades
+            double minX = Double.MAX_VALUE, maxX = 0, maxY = floor, minY = Double.MAX_VALUE;
+            for (Series s : series) {
+                for (int i = 0; i < s.sizes.length; i++) {
+                    minX = Math.min(minX, s.sizes[i]);
+                    maxX = Math.max(maxX, s.sizes[i]);
+                    minY = Math.min(minY, Math.max(s.values[i], floor));
+                    maxY = Math.max(maxY, s.values[i]);
+                }
+            }
+            double logMinX = Math.log10(minX), logMaxX = Math.log10(Math.max(maxX, minX * 2));
+            double logMinY = Math.floor(Math.log10(minY)), logMaxY = Math.ceil(Math.log10(maxY));
+            if (logMaxY <= logMinY) {
+                logMaxY = logMinY + 1;
+            }
+
+            g2.setFont(new Font("Arial", Font.PLAIN, 10));
+            FontMetrics metrics = g2.getFontMetrics();
+            for (int decade = (int) logMinY; decade <= logMaxY; decade++) {
+                int y = TOP + height - (int) ((decade - logMinY) / (logMaxY - logMinY) * height);
+                g2.setColor(new Color(60, 60, 80));
+                g2.drawLine(LEFT, y, LEFT + width, y);
+                String label = decade >= 0 ? String.format("%,d", (long) Math.pow(10, decade))
+                        : String.valueOf(Math.pow(10, decade));
+                g2.setColor(Color.LIGHT_GRAY);
+                g2.drawString(label + unit, LEFT - 6 - metrics.stringWidth(label + unit), y + 4);
+            }
+            for (int n : series.get(0).sizes) {
+                int x = LEFT + (int) ((Math.log10(n) - logMinX) / (logMaxX - logMinX) * width);
+                g2.setColor(new Color(60, 60, 80));
+                g2.drawLine(x, TOP, x, TOP + height);
+                String label = String.valueOf(n);
+                g2.setColor(Color.LIGHT_GRAY);
+                g2.drawString(label, x - metrics.stringWidth(label) / 2, TOP + height + 14);
+            }
+            g2.drawString("n", LEFT + width / 2, TOP + height + 27);
+
+            g2.setStroke(new BasicStroke(2f));
+            int legendY = TOP + 10;
+            for (Series s : series) {
+                g2.setColor(s.color);
+                int lastX = 0, lastY = 0;
+                for (int i = 0; i < s.sizes.length; i++) {
+                    double logY = Math.log10(Math.max(s.values[i], Math.pow(10, logMinY)));
+                    int x = LEFT + (int) ((Math.log10(s.sizes[i]) - logMinX) / (logMaxX - logMinX) * width);
+                    int y = TOP + height - (int) ((logY - logMinY) / (logMaxY - logMinY) * height);
+                    if (i > 0) {
+                        g2.drawLine(lastX, lastY, x, y);
+                    }
+                    g2.fillOval(x - 2, y - 2, 5, 5);
+                    lastX = x;
+                    lastY = y;
+                }
+                g2.fillRect(LEFT + width + 12, legendY - 8, 10, 10);
+                g2.setColor(Color.WHITE);
+                g2.drawString(s.name + "  " + s.growth.label, LEFT + width + 28, legendY + 1);
+                legendY += 18;
+            }
+            g2.dispose();
+        }
+    }
+}
@@ -0,0 +1,283 @@
+// ComplexityProfiler.java - Measures how each operation's hops and time grow with n
+package src;
+
+import java.util.*;
+
+/**
+ * Runs one operation on lists of doubling size and records, per size, the
+ * link hops and value comparisons it made (from HopCounter) and its median
+ * wall time, then fits the growth class each curve follows. Every operation
+ * acts on the middle of a list holding 0..n-1 and is undone, untimed and
+ * uncounted, before the next repetition, so n stays fixed.
+ *
+ * Hops are only counted when the JVM runs with -Dlistviz.hops=true; without
+ * it the hop columns are empty and only time is fitted.
+ *
+ * Usage: {@code java -Dlistviz.hops=true src.ComplexityProfiler [--indexes] [--max=n] [list types...]}
+ */
+final class ComplexityProfiler {
+    static final int WINDOW = 32; // nodes per GET_NODES call, about one screen
+    private static final long WARMUP_NANOS = 20_000_000L; // per size
+
+    enum Operation {
+        INSERT_START, INSERT_END, INSERT_AT, DELETE_VALUE, DELETE_AT, SEARCH, REVERSE, GET_NODES;
+
+        void run(ListEngine list, int n) {
+            switch (this) {
+                case INSERT_START:
+                    list.insertStart(-1);
+                    break;
+                case INSERT_END:
+                    list.insertEnd(-1);
+                    break;
+                case INSERT_AT:
+                    list.insertAt(-1, n / 2);
+                    break;
+                case DELETE_VALUE:
+                    list.deleteValue(n / 2);
+                    break;
+                case DELETE_AT:
+                    list.deleteAt(n / 2);
+                    break;
+                case SEARCH:
+                    list.search(n / 2);
+                    break;
+                case REVERSE:
+                    list.reverse();
+                    break;
+                case GET_NODES:
+                    list.getNodes(n / 2, WINDOW);
+                    break;
+            }
+        }
+
+        // Puts the list back to 0..n-1 so the next repetition sees the same n
+        void undo(ListEngine list, int n) {
+            switch (this) {
+                case INSERT_START:
+                    list.deleteAt(0);
+                    break;
+                case INSERT_END:
+                    list.deleteAt(n);
+                    break;
+                case INSERT_AT:
+                    list.deleteAt(n / 2);
+                    break;
+                case DELETE_VALUE:
+                case DELETE_AT:
+                    list.insertAt(n / 2, n / 2);
+                    break;
+                case REVERSE:
+                    list.reverse();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    enum Growth {
+        CONSTANT("O(1)"), LOGARITHMIC("O(log n)"), LINEAR("O(n)"), LINEARITHMIC("O(n log n)"), QUADRATIC("O(n²)");
+
+        final String label;
+
+        Growth(String label) {
+            this.label = label;
+        }
+
+        double of(double n) {
+            switch (this) {
+                case CONSTANT:
+                    return 1;
+                case LOGARITHMIC:
+                    return Math.log(n);
+                case LINEAR:
+                    return n;
+                case LINEARITHMIC:
+                    return n * Math.log(n);
+                default:
+                    return n * n;
+            }
+        }
+    }
+
+    /** Measurements of one operation on one list type; hops and comparisons are null when not counted. */
+    static final class Curve {
+        final String listType;
+        final Operation operation;
+        final int[] sizes;
+        final double[] hops;
+        final double[] comparisons;
+        final double[] nanos;
+        final Growth hopGrowth;
+        final Growth timeGrowth;
+
+        Curve(String listType, Operation operation, int[] sizes, double[] hops, double[] comparisons,
+                double[] nanos) {
+            this.listType = listType;
+            this.operation = operation;
+            this.sizes = sizes;
+            this.hops = hops;
+            this.comparisons = comparisons;
+            this.nanos = nanos;
+            this.hopGrowth = hops == null ? null : fit(sizes, work(hops, comparisons));
+            this.timeGrowth = fit(sizes, nanos);
+        }
+    }
+
+    private ComplexityProfiler() {
+    }
+
+    /** Sizes from min up to max, doubling. */
+    static int[] doublingSizes(int min, int max) {
+        int[] sizes = new int[0];
+        for (int n = min; n <= max; n *= 2) {
+            sizes = Arrays.copyOf(sizes, sizes.length + 1);
+            sizes[sizes.length - 1] = n;
+        }
+        return sizes;
+    }
+
+    /**
+     * Profiles one operation; indexes turns on the value and position
+     * indexes where the list type has them. Only one profile may run at a
+     * time, as they share the hop counters. Returns null when the list type
+     * cannot perform the operation.
+     */
+    static Curve profile(String listType, Operation operation, int[] sizes, int repetitions, boolean indexes) {
+        double[] hops = HopCounter.ENABLED ? new double[sizes.length] : null;
+        double[] comparisons = HopCounter.ENABLED ? new double[sizes.length] : null;
+        double[] nanos = new double[sizes.length];
+        long[] times = new long[repetitions];
+        for (int s = 0; s < sizes.length; s++) {
+            int n = sizes[s];
+            ListEngine list = ListEngine.create(listType);
+            if (operation == Operation.REVERSE && !list.supportsReverse())
+                return null;
+            list.setValueIndexEnabled(indexes);
+            list.setPositionIndexEnabled(indexes);
+            int[] values = new int[n];
+            for (int i = 0; i < n; i++) {
+                values[i] = i;
+            }
+            list.insertAll(values);
+
+            // Untimed runs until the JIT has compiled this path, which a fixed
+            // count would not manage at small n
+            long warmEnd = System.nanoTime() + WARMUP_NANOS;
+            for (int r = 0; r < repetitions || System.nanoTime() < warmEnd; r++) {
+                operation.run(list, n);
+                operation.undo(list, n);
+            }
+            long hopTotal = 0;
+            long comparisonTotal = 0;
+            for (int r = 0; r < repetitions; r++) {
+                HopCounter.reset();
+                long start = System.nanoTime();
+                operation.run(list, n);
+                times[r] = System.nanoTime() - start;
+                hopTotal += HopCounter.hops();
+                comparisonTotal += HopCounter.comparisons();
+                operation.undo(list, n);
+            }
+            Arrays.sort(times);
+            nanos[s] = times[repetitions / 2];
+            if (hops != null) {
+                hops[s] = (double) hopTotal / repetitions;
+                comparisons[s] = (double) comparisonTotal / repetitions;
+            }
+        }
+        return new Curve(listType, operation, sizes, hops, comparisons, nanos);
+    }
+
+    // Hops and comparisons both count as steps of work
+    private static double[] work(double[] hops, double[] comparisons) {
+        double[] work = new double[hops.length];
+        for (int i = 0; i < work.length; i++) {
+            work[i] = hops[i] + comparisons[i];
+        }
+        return work;
+    }
+
+    /**
+     * Fits y = a + b f(n) for each growth class by least squares on relative
+     * error, and returns the simplest class that fits within twice the error
+     * of the best one, so noise does not promote O(n) to O(n log n).
+     */
+    static Growth fit(int[] sizes, double[] values) {
+        Growth[] growths = Growth.values();
+        double[] errors = new double[growths.length];
+        double best = Double.MAX_VALUE;
+        for (int g = 0; g < growths.length; g++) {
+            errors[g] = fitError(sizes, values, growths[g]);
+            best = Math.min(best, errors[g]);
+        }
+        for (int g = 0; g < growths.length; g++) {
+            if (errors[g] <= 2 * best + 1e-9)
+                return growths[g];
+        }
+        return growths[growths.length - 1];
+    }
+
+    private static double fitError(int[] sizes, double[] values, Growth growth) {
+        // Weighted least squares with weights 1 / y^2, so every size counts alike
+        double sw = 0, sf = 0, sy = 0, sff = 0, sfy = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            double w = 1 / Math.pow(Math.max(values[i], 1), 2);
+            double f = growth == Growth.CONSTANT ? 0 : growth.of(sizes[i]);
+            sw += w;
+            sf += w * f;
+            sy += w * values[i];
+            sff += w * f * f;
+            sfy += w * f * values[i];
+        }
+        double denominator = sw * sff - sf * sf;
+        double b = denominator == 0 ? 0 : Math.max(0, (sw * sfy - sf * sy) / denominator);
+        double a = (sy - b * sf) / sw;
+        double error = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            double w = 1 / Math.pow(Math.max(values[i], 1), 2);
+            double f = growth == Growth.CONSTANT ? 0 : growth.of(sizes[i]);
+            double residual = values[i] - (a + b * f);
+            error += w * residual * residual;
+        }
+        return error;
+    }
+
+    public static void main(String[] args) {
+        boolean indexes = false;
+        int max = 16_384;
+        List<String> types = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--indexes")) {
+                indexes = true;
+            } else if (arg.startsWith("--max=")) {
+                max = Integer.parseInt(arg.substring("--max=".length()));
+            } else {
+                types.add(arg);
+            }
+        }
+        if (types.isEmpty()) {
+            types.addAll(Arrays.asList("Singly", "Doubly", "Circular", "Array", "Off-Heap", "Concurrent"));
+        }
+        if (!HopCounter.ENABLED) {
+            System.err.println("Hop counting is off; run with -Dlistviz.hops=true to fit hops as well as time");
+        }
+
+        int[] sizes = doublingSizes(64, max);
+        System.out.printf("%-11s %-13s %-11s %-11s %12s %12s%n", "list", "operation", "hops", "time",
+                "work@" + sizes[sizes.length - 1], "us@" + sizes[sizes.length - 1]);
+        for (String type : types) {
+            for (Operation operation : Operation.values()) {
+                Curve curve = profile(type, operation, sizes, 31, indexes);
+                if (curve == null)
+                    continue;
+                int last = sizes.length - 1;
+                System.out.printf("%-11s %-13s %-11s %-11s %12s %12.2f%n", type, operation,
+                        curve.hopGrowth == null ? "-" : curve.hopGrowth.label, curve.timeGrowth.label,
+                        curve.hops == null ? "-" : String.format("%.0f", curve.hops[last] + curve.comparisons[last]),
+                        curve.nanos[last] / 1e3);
+            }
+        }
+    }
+}
@@ -0,0 +1,379 @@
+// ConcurrentLinkedList.java - Lock-free singly linked list (Harris/Michael)
+package src;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+
+/**
+ * Singly linked list that any number of threads may insert into, delete
+ * from and search at once, without locks. Each link's next reference
+ * carries a mark bit: a node is deleted logically by marking its next
+ * reference, which also stops anyone linking a node after it, and is then
+ * unlinked physically by whichever thread next walks past it.
+ *
+ * Point operations are linearizable. Bulk operations are not atomic:
+ * clear, removeIf and retainRange are a run of single deletes, and
+ * insertAll links a prepared block with a single CAS. reverse is not
+ * supported, as no lock-free splice keeps readers from seeing the list
+ * emptied and refilled part way through. Positions are only
+ * meaningful at the instant they are read, so change events carry node
+ * ids and position -1.
+ */
+public class ConcurrentLinkedList implements ListEngine {
+    private final Link head = new Link(0, Node.NO_ID, null); // sentinel, never marked
+    private volatile Link tailHint = head; // some recent last node, for cheap appends
+    private final LongAdder size = new LongAdder();
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final ListChangeBus bus = new ListChangeBus();
+
+    // Matches nothing, so find() walks to the end and unlinks every deleted node
+    private static final Matcher END = (position, link) -> false;
+
+    public void addChangeListener(ListChangeListener listener) {
+        bus.addListener(listener);
+    }
+
+    public void removeChangeListener(ListChangeListener listener) {
+        bus.removeListener(listener);
+    }
+
+    public ListChangeBus changeBus() {
+        return bus;
+    }
+
+    public boolean isConcurrent() {
+        return true;
+    }
+
+    private void notifyNode(ListChangeEvent.Op op, Link link, Link next) {
+        operations.increment();
+        if (bus.hasListeners()) {
+            bus.publish(new ListChangeEvent(bus.nextSequence(), op, link.id, link.data, -1, Node.NO_ID, idOf(next), 1));
+        }
+    }
+
+    private void notifyChanged(ListChangeEvent.Op op, int count) {
+        operations.increment();
+        if (bus.hasListeners()) {
+            bus.publish(ListChangeEvent.of(bus.nextSequence(), op, count));
+        }
+    }
+
+    /** Completed mutations since the list was created. */
+    public long operationCount() {
+        return operations.sum();
+    }
+
+    /** CAS attempts that lost a race and had to be retried. */
+    public long retryCount() {
+        return retries.sum();
+    }
+
+    /** Exact while no other thread is mutating; otherwise a recent value. */
+    public int size() {
+        return (int) Math.max(0, size.sum());
+    }
+
+    public ListCursor cursor() {
+        return new LinkCursor(head);
+    }
+
+    public void insertStart(int data) {
+        insertWhere(ListChangeEvent.Op.INSERT_START, data, (position, link) -> true);
+    }
+
+    public void insertEnd(int data) {
+        Link link = new Link(data, Node.nextId(), null);
+        while (true) {
+            // Appending after a deleted node fails, because its next reference is marked
+            Link last = tailHint;
+            if (last.next.compareAndSet(null, link, false, false))
+                break;
+            retries.increment();
+            last = find(END).pred;
+            if (last.next.compareAndSet(null, link, false, false))
+                break;
+            retries.increment();
+        }
+        tailHint = link;
+        size.increment();
+        notifyNode(ListChangeEvent.Op.INSERT_END, link, null);
+    }
+
+    /** Inserts before the node found at position; past the end appends, negative inserts after the head. */
+    public void insertAt(int data, int position) {
+        int target = position < 0 ? 1 : position;
+        insertWhere(ListChangeEvent.Op.INSERT_AT, data, (index, link) -> index == target);
+    }
+
+    public void deleteValue(int data) {
+        deleteWhere(ListChangeEvent.Op.DELETE_VALUE, (position, link) -> link.data == data);
+    }
+
+    /** A negative position deletes the node right after the head, as in the other lists. */
+    public void deleteAt(int position) {
+        int target = position < 0 ? 1 : position;
+        deleteWhere(ListChangeEvent.Op.DELETE_AT, (index, link) -> index == target);
+    }
+
+    public boolean supportsReverse() {
+        return false;
+    }
+
+    public void reverse() {
+        throw new UnsupportedOperationException("the lock-free list cannot be reversed while it is shared");
+    }
+
+    public void insertAll(int[] values) {
+        insertAllAt(Integer.MAX_VALUE, values);
+    }
+
+    /** Links values in as one block with a single CAS, before the node found at position. */
+    public void insertAllAt(int position, int[] values) {
+        if (values.length == 0)
+            return;
+        Link first = null;
+        Link last = null;
+        for (int i = values.length - 1; i >= 0; i--) {
+            first = new Link(values[i], Node.nextId(), first);
+            if (last == null) {
+                last = first;
+            }
+        }
+        spliceAt(Math.max(0, position), first, last);
+        size.add(values.length);
+        operations.increment();
+        if (bus.hasListeners()) {
+            bus.publish(new ListChangeEvent(bus.nextSequence(), ListChangeEvent.Op.BULK_INSERT, first.id, first.data,
+                    -1, Node.NO_ID, idOf(last.next.getReference()), values.length));
+        }
+    }
+
+    public int removeIf(IntPredicate filter) {
+        int removed = 0;
+        for (Link link = head.next.getReference(); link != null; link = link.next.getReference()) {
+            HopCounter.hop();
+            HopCounter.compare();
+            if (filter.test(link.data) && markDeleted(link)) {
+                removed++;
+            }
+        }
+        return finishBulkRemove(removed);
+    }
+
+    public int retainRange(int from, int to) {
+        int removed = 0;
+        int position = 0;
+        for (Link link = head.next.getReference(); link != null; link = link.next.getReference()) {
+            HopCounter.hop();
+            if (link.next.isMarked())
+                continue;
+            if ((position < from || position >= to) && markDeleted(link)) {
+                removed++;
+            }
+            position++;
+        }
+        return finishBulkRemove(removed);
+    }
+
+    /** Wait-free: walks the chain once and skips deleted nodes. */
+    public Node search(int data) {
+        for (Link link = head.next.getReference(); link != null; link = link.next.getReference()) {
+            HopCounter.hop();
+            HopCounter.compare();
+            if (link.data == data && !link.next.isMarked())
+                return new Node(link.data, link.id);
+        }
+        return null;
+    }
+
+    public void clear() {
+        int removed = 0;
+        for (Link link = head.next.getReference(); link != null; link = link.next.getReference()) {
+            HopCounter.hop();
+            if (markDeleted(link)) {
+                removed++;
+            }
+        }
+        find(END);
+        notifyChanged(ListChangeEvent.Op.CLEAR, removed);
+    }
+
+    private int finishBulkRemove(int removed) {
+        if (removed == 0)
+            return 0;
+        find(END);
+        notifyChanged(ListChangeEvent.Op.BULK_REMOVE, removed);
+        return removed;
+    }
+
+    private void insertWhere(ListChangeEvent.Op op, int data, Matcher matcher) {
+        while (true) {
+            Window window = find(matcher);
+            Link link = new Link(data, Node.nextId(), window.curr);
+            if (window.pred.next.compareAndSet(window.curr, link, false, false)) {
+                if (window.curr == null) {
+                    tailHint = link;
+                }
+                size.increment();
+                notifyNode(op, link, window.curr);
+                return;
+            }
+            retries.increment();
+        }
+    }
+
+    private void deleteWhere(ListChangeEvent.Op op, Matcher matcher) {
+        while (true) {
+            Window window = find(matcher);
+            Link curr = window.curr;
+            if (curr == null)
+                return;
+            Link succ = curr.next.getReference();
+            // Marking is the deletion; unlinking is only cleanup another walk can finish.
+            // attemptMark would also succeed on a node another thread had just marked
+            if (!curr.next.compareAndSet(succ, succ, false, true)) {
+                retries.increment();
+                continue;
+            }
+            size.decrement();
+            window.pred.next.compareAndSet(curr, succ, false, false);
+            notifyNode(op, curr, succ);
+            return;
+        }
+    }
+
+    // Links first..last in before the node at position, or at the end
+    private void spliceAt(int position, Link first, Link last) {
+        while (true) {
+            Window window = find((index, link) -> index == position);
+            last.next.set(window.curr, false);
+            if (window.pred.next.compareAndSet(window.curr, first, false, false)) {
+                if (window.curr == null) {
+                    tailHint = last;
+                }
+                return;
+            }
+            retries.increment();
+        }
+    }
+
+    // Marks a node deleted; false if another thread already had
+    private boolean markDeleted(Link link) {
+        while (true) {
+            // The CAS expects an unmarked next, so only one thread wins the mark
+            if (link.next.isMarked())
+                return false;
+            Link succ = link.next.getReference();
+            if (link.next.compareAndSet(succ, succ, false, true)) {
+                size.decrement();
+                return true;
+            }
+            retries.increment();
+        }
+    }
+
+    /**
+     * Returns the first live node the matcher accepts, with its predecessor,
+     * unlinking deleted nodes on the way. curr is null when nothing matched,
+     * and pred is then the last live node.
+     */
+    private Window find(Matcher matcher) {
+        retry: while (true) {
+            Link pred = head;
+            Link curr = pred.next.getReference();
+            int position = 0;
+            while (curr != null) {
+                // Mark first: a marked next is frozen, so the reference read after it matches
+                boolean marked = curr.next.isMarked();
+                Link succ = curr.next.getReference();
+                while (marked) {
+                    if (!pred.next.compareAndSet(curr, succ, false, false)) {
+                        retries.increment();
+                        continue retry;
+                    }
+                    curr = succ;
+                    HopCounter.hop();
+                    if (curr == null)
+                        return new Window(pred, null);
+                    marked = curr.next.isMarked();
+                    succ = curr.next.getReference();
+                }
+                HopCounter.compare();
+                if (matcher.matches(position, curr))
+                    return new Window(pred, curr);
+                pred = curr;
+                curr = succ;
+                HopCounter.hop();
+                position++;
+            }
+            return new Window(pred, null);
+        }
+    }
+
+    private static long idOf(Link link) {
+        return link == null ? Node.NO_ID : link.id;
+    }
+
+    private interface Matcher {
+        boolean matches(int position, Link link);
+    }
+
+    private static final class Window {
+        final Link pred;
+        final Link curr;
+
+        Window(Link pred, Link curr) {
+            this.pred = pred;
+            this.curr = curr;
+        }
+    }
+
+    private static final class Link {
+        final int data;
+        final long id;
+        final AtomicMarkableReference<Link> next;
+
+        Link(int data, long id, Link next) {
+            this.data = data;
+            this.id = id;
+            this.next = new AtomicMarkableReference<>(next, false);
+        }
+    }
+
+    // Weakly consistent: sees every node linked before it passes, and skips deleted ones
+    private static final class LinkCursor implements ListCursor {
+        private Link current;
+
+        LinkCursor(Link head) {
+            this.current = head;
+        }
+
+        @Override
+        public boolean next() {
+            Link link = current.next.getReference();
+            HopCounter.hop();
+            while (link != null && link.next.isMarked()) {
+                link = link.next.getReference();
+                HopCounter.hop();
+            }
+            if (link == null)
+                return false;
+            current = link;
+            return true;
+        }
+
+        @Override
+        public int data() {
+            return current.data;
+        }
+
+        @Override
+        public long id() {
+            return current.id;
+        }
+    }
+}
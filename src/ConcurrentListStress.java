@@ -0,0 +1,276 @@
+// ConcurrentListStress.java - Stress and linearizability checks for ConcurrentLinkedList
+package src;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runnable checks for the lock-free list, in three parts:
+ *
+ * 1. Stress: threads insert, delete and search values that only they own,
+ *    so each thread knows exactly what it should find; at the end the list
+ *    must hold the union of what every thread left behind.
+ * 2. Linearizability: threads race on a few shared values and record when
+ *    each call started and returned on a shared clock. Every value's history
+ *    must then fit some sequential order that respects those intervals.
+ * 3. Bulk: removeIf, retainRange and insertAll run against appends, after
+ *    which a walk of the chain must agree with size().
+ *
+ * Exits with status 1 on the first failure.
+ */
+final class ConcurrentListStress {
+    private static final int KEYS = 2;
+    private static final int OPS_PER_THREAD = 6;
+
+    private enum Kind { INSERT, DELETE, FOUND, MISSING }
+
+    // One completed call on a shared value, stamped on the shared clock
+    private static final class Call {
+        final Kind kind;
+        final int value;
+        final long invoked;
+        final long returned;
+
+        Call(Kind kind, int value, long invoked, long returned) {
+            this.kind = kind;
+            this.value = value;
+            this.invoked = invoked;
+            this.returned = returned;
+        }
+    }
+
+    private ConcurrentListStress() {
+    }
+
+    /** Each thread owns its values, so it can check every search it makes. */
+    static void stress(int threads, int operations, long seed) throws InterruptedException {
+        ConcurrentLinkedList list = new ConcurrentLinkedList();
+        List<Set<Integer>> live = new ArrayList<>();
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            Set<Integer> mine = new HashSet<>();
+            live.add(mine);
+            int owner = t;
+            workers[t] = new Thread(() -> {
+                Random random = new Random(seed * 31 + owner);
+                for (int i = 0; i < operations; i++) {
+                    int value = owner * 1_000_000 + random.nextInt(500);
+                    switch (random.nextInt(4)) {
+                        case 0:
+                            if (mine.add(value)) {
+                                list.insertAt(value, random.nextInt(list.size() + 1));
+                            }
+                            break;
+                        case 1:
+                            if (mine.add(value)) {
+                                if (random.nextBoolean()) {
+                                    list.insertEnd(value);
+                                } else {
+                                    list.insertStart(value);
+                                }
+                            }
+                            break;
+                        case 2:
+                            if (mine.remove(value)) {
+                                list.deleteValue(value);
+                            }
+                            break;
+                        default:
+                            if ((list.search(value) != null) != mine.contains(value)) {
+                                failures.add("search(" + value + ") disagrees with its owner");
+                                return;
+                            }
+                    }
+                }
+            }, "stress-" + t);
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (!failures.isEmpty())
+            fail(failures.get(0));
+
+        Set<Integer> expected = new HashSet<>();
+        for (Set<Integer> mine : live) {
+            expected.addAll(mine);
+        }
+        Set<Integer> found = new HashSet<>();
+        int walked = 0;
+        ListCursor cursor = list.cursor();
+        while (cursor.next()) {
+            found.add(cursor.data());
+            walked++;
+        }
+        if (!found.equals(expected) || walked != expected.size() || list.size() != walked)
+            fail("stress: expected " + expected.size() + " values, walked " + walked + " (" + found.size()
+                    + " distinct), size() " + list.size());
+    }
+
+    /** Races threads on KEYS shared values and checks each value's history. */
+    static void linearizability(int threads, long seed) throws InterruptedException {
+        ConcurrentLinkedList list = new ConcurrentLinkedList();
+        AtomicLong clock = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Call> history = Collections.synchronizedList(new ArrayList<>());
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(seed * 17 + t);
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    int value = random.nextInt(KEYS);
+                    int dice = random.nextInt(3);
+                    long invoked = clock.incrementAndGet();
+                    Kind kind;
+                    if (dice == 0) {
+                        list.insertAt(value, random.nextInt(3));
+                        kind = Kind.INSERT;
+                    } else if (dice == 1) {
+                        list.deleteValue(value);
+                        kind = Kind.DELETE;
+                    } else {
+                        kind = list.search(value) != null ? Kind.FOUND : Kind.MISSING;
+                    }
+                    history.add(new Call(kind, value, invoked, clock.incrementAndGet()));
+                }
+            }, "linearizability-" + t);
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Values never interfere with each other, so each history is checked alone
+        for (int value = 0; value < KEYS; value++) {
+            List<Call> calls = new ArrayList<>();
+            for (Call call : history) {
+                if (call.value == value) {
+                    calls.add(call);
+                }
+            }
+            if (!linearizable(calls, (1L << calls.size()) - 1, 0, new HashSet<>()))
+                fail("no sequential order explains the calls on value " + value + ": " + describe(calls));
+        }
+    }
+
+    /**
+     * Wing and Gong's search: try each pending call that no other pending
+     * call returned before, against a model that counts copies of the value.
+     * Memoizes failed (pending, copies) states.
+     */
+    private static boolean linearizable(List<Call> calls, long pending, int copies, Set<Long> failed) {
+        if (pending == 0)
+            return true;
+        long key = pending * 64 + copies;
+        if (failed.contains(key))
+            return false;
+        long firstReturn = Long.MAX_VALUE;
+        for (int i = 0; i < calls.size(); i++) {
+            if ((pending & (1L << i)) != 0) {
+                firstReturn = Math.min(firstReturn, calls.get(i).returned);
+            }
+        }
+        for (int i = 0; i < calls.size(); i++) {
+            Call call = calls.get(i);
+            if ((pending & (1L << i)) == 0 || call.invoked > firstReturn)
+                continue;
+            int next;
+            switch (call.kind) {
+                case INSERT:
+                    next = copies + 1;
+                    break;
+                case DELETE:
+                    next = Math.max(0, copies - 1);
+                    break;
+                case FOUND:
+                    if (copies == 0)
+                        continue;
+                    next = copies;
+                    break;
+                default:
+                    if (copies != 0)
+                        continue;
+                    next = copies;
+            }
+            if (linearizable(calls, pending & ~(1L << i), next, failed))
+                return true;
+        }
+        failed.add(key);
+        return false;
+    }
+
+    /** Bulk operations race appends; the chain and the size counter must still agree. */
+    static void bulk() throws InterruptedException {
+        ConcurrentLinkedList list = new ConcurrentLinkedList();
+        Thread appender = new Thread(() -> {
+            for (int i = 0; i < 2000; i++) {
+                list.insertEnd(i);
+            }
+        });
+        Thread bulk = new Thread(() -> {
+            for (int i = 0; i < 200; i++) {
+                list.removeIf(v -> v % 97 == 0);
+                list.retainRange(1, list.size());
+                list.insertAll(new int[] { -1, -2 });
+            }
+        });
+        appender.start();
+        bulk.start();
+        appender.join();
+        bulk.join();
+        int walked = 0;
+        ListCursor cursor = list.cursor();
+        while (cursor.next()) {
+            walked++;
+        }
+        if (walked != list.size())
+            fail("bulk: walked " + walked + " nodes, size() " + list.size());
+    }
+
+    private static String describe(List<Call> calls) {
+        StringBuilder text = new StringBuilder();
+        for (Call call : calls) {
+            text.append(String.format("%n  %s [%d, %d]", call.kind, call.invoked, call.returned));
+        }
+        return text.toString();
+    }
+
+    private static void fail(String message) {
+        System.err.println("FAILED: " + message);
+        System.exit(1);
+    }
+
+    /** Usage: {@code java -cp out src.ConcurrentListStress [--threads=N] [--rounds=N]} */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = 8;
+        int rounds = 20;
+        for (String arg : args) {
+            if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--rounds=")) {
+                rounds = Integer.parseInt(arg.substring("--rounds=".length()));
+            } else {
+                System.err.println("Usage: ConcurrentListStress [--threads=N] [--rounds=N]");
+                System.exit(2);
+            }
+        }
+        for (int round = 0; round < rounds; round++) {
+            stress(threads, 20_000, round);
+            bulk();
+        }
+        System.out.printf("stress: %d rounds of %d threads ok%n", rounds, threads);
+        int histories = rounds * 100;
+        for (int i = 0; i < histories; i++) {
+            linearizability(Math.min(threads, 4), i);
+        }
+        System.out.printf("linearizability: %d histories ok%n", histories);
+    }
+}
@@ -2,22 +2,53 @@
 package src;
 
 import java.util.*;
+import java.util.function.IntPredicate;
 
-public class DoublyLinkedList {
+public class DoublyLinkedList implements ListEngine {
     public Node head;
-    private List<NodeChangeListener> listeners = new ArrayList<>();
+    private Node tail;
+    private int size;
+    private ValueIndex index; // optional value -> node index
+    private PositionIndex positions; // optional skip lanes for positional lookups
+    private final ListChangeBus bus = new ListChangeBus();
 
-    public interface NodeChangeListener {
-        void onNodeChanged(String operation, String nodeId);
+    public void addChangeListener(ListChangeListener listener) {
+        bus.addListener(listener);
     }
 
-    public void addChangeListener(NodeChangeListener listener) {
-        listeners.add(listener);
+    public void removeChangeListener(ListChangeListener listener) {
+        bus.removeListener(listener);
     }
 
-    private void notifyListeners(String operation, String nodeId) {
-        for (NodeChangeListener listener : listeners) {
-            listener.onNodeChanged(operation, nodeId);
+    public ListChangeBus changeBus() {
+        return bus;
+    }
+
+    private void notifyInserted(ListChangeEvent.Op op, Node node, int position) {
+        if (bus.hasListeners()) {
+            bus.publish(new ListChangeEvent(bus.nextSequence(), op, node.id, node.data, position,
+                    Node.idOf(node.prev), Node.idOf(node.next), 1));
+        }
+    }
+
+    // Removed nodes keep their old links, which name the neighbours now joined
+    private void notifyRemoved(ListChangeEvent.Op op, Node node, int position) {
+        if (bus.hasListeners()) {
+            bus.publish(new ListChangeEvent(bus.nextSequence(), op, node.id, node.data, position,
+                    Node.idOf(node.prev), Node.idOf(node.next), 1));
+        }
+    }
+
+    private void notifyBulkInserted(Node first, Node last, int position, int count) {
+        if (bus.hasListeners()) {
+            bus.publish(new ListChangeEvent(bus.nextSequence(), ListChangeEvent.Op.BULK_INSERT, first.id, first.data,
+                    position, Node.idOf(first.prev), Node.idOf(last.next), count));
+        }
+    }
+
+    private void notifyChanged(ListChangeEvent.Op op, int count) {
+        if (bus.hasListeners()) {
+            bus.publish(ListChangeEvent.of(bus.nextSequence(), op, count));
         }
     }
 
@@ -27,33 +58,119 @@ public class DoublyLinkedList {
         while (temp != null) {
             list.add(temp);
             temp = temp.next;
+            HopCounter.hop();
         }
         return list;
     }
 
+    public List<Node> getNodes(int from, int count) {
+        from = Math.max(0, from);
+        count = Math.max(0, Math.min(count, size - from));
+        List<Node> list = new ArrayList<>(count);
+        Node temp = count == 0 ? null : nodeAt(from);
+        for (int i = 0; i < count; i++) {
+            list.add(temp);
+            temp = temp.next;
+            HopCounter.hop();
+        }
+        return list;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public ListCursor cursor() {
+        return new NodeCursor(head, size);
+    }
+
+    public boolean hasPrevLinks() {
+        return true;
+    }
+
+    public boolean supportsValueIndex() {
+        return true;
+    }
+
+    public boolean supportsPositionIndex() {
+        return true;
+    }
+
+    /**
+     * Turns the value index on or off. While it is on, search and deleteValue
+     * are expected O(1) for a distinct value; a value held k times costs
+     * about k times the gap between its copies. Either way they act on the
+     * first match in list order.
+     */
+    public boolean setValueIndexEnabled(boolean enabled) {
+        if (!enabled) {
+            index = null;
+        } else if (index == null) {
+            index = new ValueIndex();
+            for (Node temp = head; temp != null; temp = temp.next) {
+                index.add(temp);
+                HopCounter.hop();
+            }
+        }
+        return true;
+    }
+
+    public boolean isValueIndexEnabled() {
+        return index != null;
+    }
+
+    public long valueIndexBytes() {
+        return index == null ? 0 : index.estimatedBytes();
+    }
+
+    /**
+     * Turns the skip-lane position index on or off. While it is on, insertAt
+     * and deleteAt find their node in expected O(log n) hops, and every insert
+     * or delete pays O(log n) to keep the lanes current.
+     */
+    public boolean setPositionIndexEnabled(boolean enabled) {
+        if (!enabled) {
+            positions = null;
+        } else if (positions == null) {
+            positions = new PositionIndex(); // built from the chain on first use
+        }
+        return true;
+    }
+
+    public boolean isPositionIndexEnabled() {
+        return positions != null;
+    }
+
     public void insertStart(int data) {
-        Node newNode = new Node(data);
+        Node newNode = newNode(data);
         newNode.next = head;
         if (head != null) {
             head.prev = newNode;
+        } else {
+            tail = newNode;
         }
         head = newNode;
-        notifyListeners("ins-start", newNode.getId());
+        size++;
+        if (positions != null) {
+            positions.inserted(0, newNode);
+        }
+        notifyInserted(ListChangeEvent.Op.INSERT_START, newNode, 0);
     }
 
     public void insertEnd(int data) {
-        Node newNode = new Node(data);
-        if (head == null) {
+        Node newNode = newNode(data);
+        if (tail == null) {
             head = newNode;
-            notifyListeners("ins-end", newNode.getId());
-            return;
+        } else {
+            tail.next = newNode;
+            newNode.prev = tail;
         }
-        Node temp = head;
-        while (temp.next != null)
-            temp = temp.next;
-        temp.next = newNode;
-        newNode.prev = temp;
-        notifyListeners("ins-end", newNode.getId());
+        tail = newNode;
+        size++;
+        if (positions != null) {
+            positions.inserted(size - 1, newNode);
+        }
+        notifyInserted(ListChangeEvent.Op.INSERT_END, newNode, size - 1);
     }
 
     public void insertAt(int data, int position) {
@@ -61,117 +178,306 @@ public class DoublyLinkedList {
             insertStart(data);
             return;
         }
-
-        Node newNode = new Node(data);
-        Node temp = head;
-        for (int i = 0; i < position - 1 && temp != null; i++) {
-            temp = temp.next;
+        if (position > size || head == null) {
+            insertEnd(data);
+            return;
         }
 
-        if (temp == null) {
-            insertEnd(data);
+        // a negative position inserts right after the head
+        Node temp;
+        if (position < 0) {
+            temp = head;
+            position = 1;
         } else {
-            newNode.next = temp.next;
-            newNode.prev = temp;
-            if (temp.next != null) {
-                temp.next.prev = newNode;
-            }
-            temp.next = newNode;
-            notifyListeners("ins-pos", newNode.getId());
+            temp = nodeAt(position - 1);
+        }
+        Node newNode = newNode(data);
+        newNode.next = temp.next;
+        newNode.prev = temp;
+        if (temp.next != null) {
+            temp.next.prev = newNode;
+        } else {
+            tail = newNode;
         }
+        temp.next = newNode;
+        size++;
+        if (positions != null) {
+            positions.inserted(position, newNode);
+        }
+        notifyInserted(ListChangeEvent.Op.INSERT_AT, newNode, position);
     }
 
     public void deleteValue(int data) {
-        if (head == null)
-            return;
-
-        if (head.data == data) {
-            String deletedId = head.getId();
-            head = head.next;
-            if (head != null) {
-                head.prev = null;
+        Node temp;
+        int position = -1;
+        if (index != null) {
+            temp = index.first(data, head);
+        } else {
+            temp = head;
+            position = 0;
+            HopCounter.compare();
+            while (temp != null && temp.data != data) {
+                temp = temp.next;
+                position++;
+                HopCounter.hop();
+                HopCounter.compare();
             }
-            notifyListeners("del-value", deletedId);
-            return;
-        }
-
-        Node temp = head;
-        while (temp != null && temp.data != data) {
-            temp = temp.next;
         }
 
         if (temp != null) {
-            String deletedId = temp.getId();
-            if (temp.prev != null) {
-                temp.prev.next = temp.next;
-            }
-            if (temp.next != null) {
-                temp.next.prev = temp.prev;
-            }
-            notifyListeners("del-value", deletedId);
+            unlink(temp, position);
+            notifyRemoved(ListChangeEvent.Op.DELETE_VALUE, temp, position);
         }
     }
 
     public void deleteAt(int position) {
-        if (head == null)
+        if (position < 0 || position >= size)
             return;
 
-        if (position == 0) {
-            String deletedId = head.getId();
-            head = head.next;
-            if (head != null) {
-                head.prev = null;
-            }
-            notifyListeners("del-position", deletedId);
-            return;
-        }
-
-        Node temp = head;
-        for (int i = 0; i < position && temp != null; i++) {
-            temp = temp.next;
-        }
-
-        if (temp != null) {
-            String deletedId = temp.getId();
-            if (temp.prev != null) {
-                temp.prev.next = temp.next;
-            }
-            if (temp.next != null) {
-                temp.next.prev = temp.prev;
-            }
-            notifyListeners("del-position", deletedId);
-        }
+        Node temp = nodeAt(position);
+        unlink(temp, position);
+        notifyRemoved(ListChangeEvent.Op.DELETE_AT, temp, position);
     }
 
     public void reverse() {
         Node temp = null;
         Node current = head;
+        tail = head;
 
         while (current != null) {
             temp = current.prev;
             current.prev = current.next;
             current.next = temp;
             current = current.prev;
+            HopCounter.hop();
         }
 
         if (temp != null) {
             head = temp.prev;
         }
-        notifyListeners("reverse", null);
+        if (positions != null) {
+            positions.invalidate();
+        }
+        notifyChanged(ListChangeEvent.Op.REVERSE, size);
+    }
+
+    public void insertAll(int[] values) {
+        insertAllAt(size, values);
+    }
+
+    /**
+     * Links values in as one block whose first element lands at position
+     * (clamped to the list bounds), then fires a single BULK_INSERT event.
+     */
+    public void insertAllAt(int position, int[] values) {
+        if (values.length == 0)
+            return;
+        position = Math.max(0, Math.min(position, size));
+
+        Node first = newNode(values[0]);
+        Node last = first;
+        for (int i = 1; i < values.length; i++) {
+            Node newNode = newNode(values[i]);
+            newNode.prev = last;
+            last.next = newNode;
+            last = newNode;
+        }
+
+        if (head == null) {
+            head = first;
+            tail = last;
+        } else if (position <= 0) {
+            last.next = head;
+            head.prev = last;
+            head = first;
+        } else if (position >= size) {
+            tail.next = first;
+            first.prev = tail;
+            tail = last;
+        } else {
+            Node before = nodeAt(position - 1);
+            last.next = before.next;
+            before.next.prev = last;
+            first.prev = before;
+            before.next = first;
+        }
+        size += values.length;
+        if (positions != null) {
+            positions.invalidate();
+        }
+        notifyBulkInserted(first, last, position, values.length);
+    }
+
+    /** Removes every node whose value matches in one pass; fires one BULK_REMOVE event. */
+    public int removeIf(IntPredicate filter) {
+        Node kept = null; // last surviving node so far
+        int removed = 0;
+        for (Node temp = head; temp != null; temp = temp.next) {
+            HopCounter.hop();
+            HopCounter.compare();
+            if (filter.test(temp.data)) {
+                if (index != null) {
+                    index.remove(temp);
+                }
+                removed++;
+            } else {
+                temp.prev = kept;
+                if (kept == null) {
+                    head = temp;
+                } else {
+                    kept.next = temp;
+                }
+                kept = temp;
+            }
+        }
+
+        if (removed == 0)
+            return 0;
+        if (kept == null) {
+            head = null;
+        } else {
+            kept.next = null;
+        }
+        tail = kept;
+        size -= removed;
+        if (positions != null) {
+            positions.invalidate();
+        }
+        notifyChanged(ListChangeEvent.Op.BULK_REMOVE, removed);
+        return removed;
+    }
+
+    /** Keeps only positions from (inclusive) to to (exclusive); fires one BULK_REMOVE event. */
+    public int retainRange(int from, int to) {
+        from = Math.max(0, from);
+        to = Math.min(size, to);
+        int kept = Math.max(0, to - from);
+        int removed = size - kept;
+        if (removed == 0)
+            return 0;
+
+        if (kept == 0) {
+            head = null;
+            tail = null;
+            if (index != null) {
+                index.clear();
+            }
+        } else {
+            Node first = nodeAt(from);
+            Node last = first;
+            for (int i = 1; i < kept; i++) {
+                last = last.next;
+                HopCounter.hop();
+            }
+            if (index != null) {
+                for (Node temp = head; temp != first; temp = temp.next) {
+                    index.remove(temp);
+                    HopCounter.hop();
+                }
+                for (Node temp = last.next; temp != null; temp = temp.next) {
+                    index.remove(temp);
+                    HopCounter.hop();
+                }
+            }
+            first.prev = null;
+            last.next = null;
+            head = first;
+            tail = last;
+        }
+        size = kept;
+        if (positions != null) {
+            positions.invalidate();
+        }
+        notifyChanged(ListChangeEvent.Op.BULK_REMOVE, removed);
+        return removed;
     }
 
     public Node search(int data) {
+        if (index != null) {
+            return index.first(data, head);
+        }
         Node temp = head;
         while (temp != null) {
+            HopCounter.compare();
             if (temp.data == data)
                 return temp;
             temp = temp.next;
+            HopCounter.hop();
         }
         return null;
     }
 
     public void clear() {
+        int removed = size;
         head = null;
-        notifyListeners("clear", null);
+        tail = null;
+        size = 0;
+        if (index != null) {
+            index.clear();
+        }
+        if (positions != null) {
+            positions.clear();
+        }
+        notifyChanged(ListChangeEvent.Op.CLEAR, removed);
+    }
+
+    private Node newNode(int data) {
+        Node newNode = new Node(data);
+        if (index != null) {
+            index.add(newNode);
+        }
+        return newNode;
+    }
+
+    // Uses the skip lanes when enabled; otherwise walks from whichever end is
+    // closer, so no lookup takes more than size / 2 hops.
+    private Node nodeAt(int position) {
+        if (positions != null) {
+            if (positions.isStale()) {
+                positions.rebuild(head, size);
+            }
+            return positions.nodeAt(head, position);
+        }
+        Node temp;
+        if (position < size / 2) {
+            temp = head;
+            for (int i = 0; i < position; i++) {
+                temp = temp.next;
+                HopCounter.hop();
+            }
+        } else {
+            temp = tail;
+            for (int i = size - 1; i > position; i--) {
+                temp = temp.prev;
+                HopCounter.hop();
+            }
+        }
+        return temp;
+    }
+
+    // position is that of the removed node, or -1 when the caller does not know it
+    private void unlink(Node node, int position) {
+        if (index != null) {
+            index.remove(node);
+        }
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            head = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        } else {
+            tail = node.prev;
+        }
+        size--;
+        if (positions == null) {
+            return;
+        }
+        if (position < 0) {
+            positions.invalidate();
+        } else {
+            positions.removed(position);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,351 @@
+// GuardedLinkedList.java - StampedLock wrapper that lets worker threads mutate a node list
+package src;
+
+import java.util.*;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+/**
+ * Makes a Singly, Doubly or Circular list safe to mutate from a background
+ * thread while the EDT reads it. Every mutation holds the write lock. Its
+ * change events are queued under the lock, so they keep the order of the
+ * edits, and delivered after the lock is released, so a listener may read
+ * the list back without deadlocking on the non-reentrant lock. Reads
+ * (search, size, cursors and read()) first run optimistically without
+ * blocking writers: the walk is bounded by the node count and anything it
+ * throws on a half-edited chain is discarded, and the result is only used
+ * if no write happened meanwhile. After MAX_OPTIMISTIC_ATTEMPTS failures
+ * the read takes the read lock.
+ *
+ * Nodes handed out are detached copies, so nothing outside the lock ever
+ * holds a live link.
+ */
+public final class GuardedLinkedList implements ListEngine {
+    static final int MAX_OPTIMISTIC_ATTEMPTS = 2;
+
+    private final ListEngine delegate;
+    private final StampedLock lock = new StampedLock();
+
+    private GuardedLinkedList(ListEngine delegate) {
+        this.delegate = delegate;
+        delegate.changeBus().setDeferred(true);
+    }
+
+    /**
+     * Wraps the node-based lists. Other engines are returned as they are:
+     * the array lists have no bounded walk to read optimistically, and the
+     * concurrent list needs no lock.
+     */
+    static ListEngine guard(ListEngine list) {
+        if (list instanceof SinglyLinkedList || list instanceof DoublyLinkedList
+                || list instanceof CircularLinkedList)
+            return new GuardedLinkedList(list);
+        return list;
+    }
+
+    public <T> T read(Function<ListEngine, T> reader) {
+        for (int attempt = 0; attempt < MAX_OPTIMISTIC_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp == 0)
+                break; // a writer holds the lock right now
+            T result;
+            try {
+                result = reader.apply(delegate);
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp))
+                    throw e; // nothing changed underneath, so the reader itself failed
+                continue; // walked into an edit in progress
+            }
+            if (lock.validate(stamp))
+                return result;
+        }
+        long stamp = lock.readLock();
+        try {
+            return reader.apply(delegate);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Every mutation runs under the write lock, and its events go out once it is released
+
+    private void unlockWrite(long stamp) {
+        lock.unlockWrite(stamp);
+        delegate.changeBus().deliver();
+    }
+
+    public void insertStart(int data) {
+        long stamp = lock.writeLock();
+        try {
+            delegate.insertStart(data);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    public void insertEnd(int data) {
+        long stamp = lock.writeLock();
+        try {
+            delegate.insertEnd(data);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    public void insertAt(int data, int position) {
+        long stamp = lock.writeLock();
+        try {
+            delegate.insertAt(data, position);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    public void deleteValue(int data) {
+        long stamp = lock.writeLock();
+        try {
+            delegate.deleteValue(data);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    public void deleteAt(int position) {
+        long stamp = lock.writeLock();
+        try {
+            delegate.deleteAt(position);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    public void reverse() {
+        long stamp = lock.writeLock();
+        try {
+            delegate.reverse();
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    public void insertAll(int[] values) {
+        long stamp = lock.writeLock();
+        try {
+            delegate.insertAll(values);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    public void insertAllAt(int position, int[] values) {
+        long stamp = lock.writeLock();
+        try {
+            delegate.insertAllAt(position, values);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    public int removeIf(IntPredicate filter) {
+        long stamp = lock.writeLock();
+        try {
+            return delegate.removeIf(filter);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    public int retainRange(int from, int to) {
+        long stamp = lock.writeLock();
+        try {
+            return delegate.retainRange(from, to);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            delegate.clear();
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    public boolean supportsReverse() {
+        return delegate.supportsReverse();
+    }
+
+    public boolean supportsValueIndex() {
+        return delegate.supportsValueIndex();
+    }
+
+    public boolean supportsPositionIndex() {
+        return delegate.supportsPositionIndex();
+    }
+
+    public boolean setValueIndexEnabled(boolean enabled) {
+        long stamp = lock.writeLock();
+        try {
+            return delegate.setValueIndexEnabled(enabled);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    public boolean setPositionIndexEnabled(boolean enabled) {
+        long stamp = lock.writeLock();
+        try {
+            return delegate.setPositionIndexEnabled(enabled);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    // Reads
+
+    /**
+     * With the value index on, the lookup goes to the index under the read
+     * lock, as hash buckets are not safe to read mid-edit; whether it is on
+     * is read under the same lock. Otherwise a bounded cursor is scanned
+     * optimistically.
+     */
+    public Node search(int data) {
+        long stamp = lock.readLock();
+        try {
+            if (delegate.isValueIndexEnabled())
+                return detach(delegate.search(data));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return read(list -> {
+            ListCursor cursor = list.cursor();
+            while (cursor.next()) {
+                if (cursor.data() == data)
+                    return new Node(data, cursor.id());
+            }
+            return null;
+        });
+    }
+
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int size = delegate.size();
+        if (lock.validate(stamp))
+            return size;
+        stamp = lock.readLock();
+        try {
+            return delegate.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Cursor over a copy taken at one consistent point, so it stays valid while others write. */
+    public ListCursor cursor() {
+        return read(list -> {
+            int size = list.size();
+            int[] values = new int[size];
+            long[] ids = new long[size];
+            ListCursor cursor = list.cursor();
+            for (int i = 0; i < size; i++) {
+                cursor.next();
+                values[i] = cursor.data();
+                ids[i] = cursor.id();
+            }
+            return new CopyCursor(values, ids);
+        });
+    }
+
+    // Copies from a plain cursor walk: the engines' own getNodes may rebuild
+    // their position index, which is not a read
+    public List<Node> getNodes(int from, int count) {
+        return read(list -> {
+            List<Node> nodes = new ArrayList<>();
+            ListCursor cursor = list.cursor();
+            for (int i = 0; i < from && cursor.next(); i++) {
+                // skip to from
+            }
+            Node previous = null;
+            while (nodes.size() < count && cursor.next()) {
+                Node copy = new Node(cursor.data(), cursor.id());
+                if (previous != null) {
+                    previous.next = copy;
+                    if (list.hasPrevLinks()) {
+                        copy.prev = previous;
+                    }
+                }
+                nodes.add(copy);
+                previous = copy;
+            }
+            return nodes;
+        });
+    }
+
+    public boolean isValueIndexEnabled() {
+        return delegate.isValueIndexEnabled();
+    }
+
+    public long valueIndexBytes() {
+        return read(ListEngine::valueIndexBytes);
+    }
+
+    public boolean isPositionIndexEnabled() {
+        return delegate.isPositionIndexEnabled();
+    }
+
+    public boolean hasPrevLinks() {
+        return delegate.hasPrevLinks();
+    }
+
+    public boolean isCircular() {
+        return delegate.isCircular();
+    }
+
+    public void addChangeListener(ListChangeListener listener) {
+        delegate.addChangeListener(listener);
+    }
+
+    public void removeChangeListener(ListChangeListener listener) {
+        delegate.removeChangeListener(listener);
+    }
+
+    public ListChangeBus changeBus() {
+        return delegate.changeBus();
+    }
+
+    private static Node detach(Node node) {
+        return node == null ? null : new Node(node.data, node.id);
+    }
+
+    private static final class CopyCursor implements ListCursor {
+        private final int[] values;
+        private final long[] ids;
+        private int index = -1;
+
+        CopyCursor(int[] values, long[] ids) {
+            this.values = values;
+            this.ids = ids;
+        }
+
+        @Override
+        public boolean next() {
+            if (index + 1 >= values.length)
+                return false;
+            index++;
+            return true;
+        }
+
+        @Override
+        public int data() {
+            return values[index];
+        }
+
+        @Override
+        public long id() {
+            return ids[index];
+        }
+    }
+}
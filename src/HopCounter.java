@@ -0,0 +1,51 @@
+// HopCounter.java - Optional counts of link hops and value comparisons
+package src;
+
+/**
+ * Counts the link hops (following a next, prev or lane pointer) and value
+ * comparisons the list engines make, so ComplexityProfiler can measure how
+ * an operation's work grows with n. Off unless the JVM is started with
+ * {@code -Dlistviz.hops=true}: ENABLED is a constant, so with it false the
+ * JIT drops the calls in the traversal loops entirely.
+ *
+ * Only the thread that last called reset() is counted, so the EDT painting
+ * its own list does not leak into a profile running on a worker. The
+ * counters are plain fields, as only that one thread writes them.
+ */
+final class HopCounter {
+    static final boolean ENABLED = Boolean.getBoolean("listviz.hops");
+
+    private static volatile Thread counted;
+    private static long hops;
+    private static long comparisons;
+
+    private HopCounter() {
+    }
+
+    static void hop() {
+        if (ENABLED && Thread.currentThread() == counted) {
+            hops++;
+        }
+    }
+
+    static void compare() {
+        if (ENABLED && Thread.currentThread() == counted) {
+            comparisons++;
+        }
+    }
+
+    static long hops() {
+        return hops;
+    }
+
+    static long comparisons() {
+        return comparisons;
+    }
+
+    /** Zeroes the counters and counts the calling thread from now on. */
+    static void reset() {
+        hops = 0;
+        comparisons = 0;
+        counted = Thread.currentThread();
+    }
+}
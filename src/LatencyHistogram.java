@@ -0,0 +1,137 @@
+// LatencyHistogram.java - Fixed-size log-linear histogram of nanosecond latencies
+package src;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records latencies into buckets that double in width every SUB_BUCKETS
+ * steps, so any value is kept to within about 6% without storing samples.
+ * Recording is a few shifts and an array increment; memory is fixed at
+ * about 8 KB whatever the run length. Not thread-safe: give each thread
+ * its own and merge them, or record into a Recorder.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+    private long max;
+    private long sum;
+
+    void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts[bucketOf(nanos)]++;
+        total++;
+        sum += nanos;
+        if (nanos > max) {
+            max = nanos;
+        }
+    }
+
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    void reset() {
+        java.util.Arrays.fill(counts, 0);
+        total = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    long count() {
+        return total;
+    }
+
+    long max() {
+        return max;
+    }
+
+    double mean() {
+        return total == 0 ? 0 : (double) sum / total;
+    }
+
+    /** Upper bound of the bucket holding the given percentile (0-100), in nanoseconds. */
+    long percentile(double percentile) {
+        if (total == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return Math.min(max, upperBound(i));
+        }
+        return max;
+    }
+
+    /**
+     * Lock-free histogram any number of threads can record into at once,
+     * read through snapshot(). A record costs one atomic increment plus
+     * two striped adds, and never blocks.
+     */
+    static final class Recorder {
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos) {
+            if (nanos < 0) {
+                nanos = 0;
+            }
+            counts.incrementAndGet(bucketOf(nanos));
+            sum.add(nanos);
+            max.accumulate(nanos);
+        }
+
+        /** Copy of what has been recorded; records racing with it may or may not be included. */
+        LatencyHistogram snapshot() {
+            LatencyHistogram copy = new LatencyHistogram();
+            for (int i = 0; i < BUCKETS; i++) {
+                long count = counts.get(i);
+                copy.counts[i] = count;
+                copy.total += count;
+            }
+            copy.sum = sum.sum();
+            copy.max = max.get();
+            return copy;
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts.set(i, 0);
+            }
+            sum.reset();
+            max.reset();
+        }
+    }
+
+    // Values below SUB_BUCKETS get a bucket each; above that, each power of
+    // two is split into SUB_BUCKETS equal steps
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int sub = (int) (value >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long sub = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,121 @@
+// ListChangeBus.java - Listener registry and event dispatch for one list
+package src;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers a list's change events. By default each event is dispatched
+ * synchronously inside the mutation. Whenever a delivery executor is set,
+ * events are queued instead and reach the listeners together through
+ * onListChangedBatch, at most one flush being scheduled on the executor at
+ * a time (e.g. once per EDT turn). An owner that mutates under a lock can
+ * also defer delivery until it has released the lock. Bulk operations
+ * already publish a single event each, so there is no separate batching
+ * call.
+ *
+ * The listener registry is copy-on-write, so listeners may be added or
+ * removed during a notification.
+ */
+public final class ListChangeBus {
+    private final CopyOnWriteArrayList<ListChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final ConcurrentLinkedQueue<ListChangeEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile Executor deliveryExecutor;
+    private volatile boolean deferred;
+
+    public void addListener(ListChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ListChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Lets engines skip building events nobody will receive. */
+    public boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    /** Sequence number of the most recently created event. */
+    public long lastSequence() {
+        return sequence.get();
+    }
+
+    /** Numbers the next event; engines pass it to the event they then publish. */
+    long nextSequence() {
+        return sequence.incrementAndGet();
+    }
+
+    /**
+     * Queues events and flushes them on the given executor instead of
+     * dispatching inside the mutation; null restores synchronous delivery.
+     */
+    public void setDeliveryExecutor(Executor executor) {
+        this.deliveryExecutor = executor;
+        if (executor == null) {
+            flush();
+        }
+    }
+
+    /**
+     * Queues every event, even without an executor, until the owner calls
+     * deliver(). For owners that mutate under a lock, so listeners never run
+     * while it is held.
+     */
+    void setDeferred(boolean deferred) {
+        this.deferred = deferred;
+    }
+
+    /** Sends queued events on: through the executor if one is set, otherwise now, on this thread. */
+    void deliver() {
+        scheduleFlush();
+    }
+
+    public void publish(ListChangeEvent event) {
+        if (deferred) {
+            pending.add(event);
+            return;
+        }
+        if (deliveryExecutor != null) {
+            pending.add(event);
+            scheduleFlush();
+            return;
+        }
+        for (ListChangeListener listener : listeners) {
+            listener.onListChanged(event);
+        }
+    }
+
+    /** Delivers every queued event now, on the calling thread; one flush runs at a time, in order. */
+    public synchronized void flush() {
+        if (pending.isEmpty())
+            return;
+        List<ListChangeEvent> batch = new ArrayList<>();
+        ListChangeEvent event;
+        while ((event = pending.poll()) != null) {
+            batch.add(event);
+        }
+        List<ListChangeEvent> events = Collections.unmodifiableList(batch);
+        for (ListChangeListener listener : listeners) {
+            listener.onListChangedBatch(events);
+        }
+    }
+
+    private void scheduleFlush() {
+        Executor executor = deliveryExecutor;
+        if (executor == null) {
+            flush();
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+}
@@ -0,0 +1,57 @@
+// ListChangeEvent.java - Typed description of one list mutation
+package src;
+
+/**
+ * Immutable record of a single mutation. Neighbour ids describe the links
+ * around the affected node: for insertions they are its new neighbours, for
+ * removals the old neighbours that are now linked to each other. Fields that
+ * do not apply hold Node.NO_ID or -1.
+ */
+public final class ListChangeEvent {
+    public enum Op {
+        INSERT_START, INSERT_END, INSERT_AT, DELETE_VALUE, DELETE_AT, REVERSE, CLEAR, BULK_INSERT, BULK_REMOVE;
+
+        public boolean isInsert() {
+            return this == INSERT_START || this == INSERT_END || this == INSERT_AT;
+        }
+
+        public boolean isRemove() {
+            return this == DELETE_VALUE || this == DELETE_AT;
+        }
+    }
+
+    public final Op op;
+    public final long nodeId; // affected node, or the first node of a bulk insert
+    public final int value;
+    public final int position; // index after an insert, before a removal; -1 if unknown
+    public final long prevId;
+    public final long nextId;
+    public final int count; // number of nodes inserted or removed
+    private final long sequence; // from the list's bus, increasing per list
+
+    ListChangeEvent(long sequence, Op op, long nodeId, int value, int position, long prevId, long nextId,
+            int count) {
+        this.sequence = sequence;
+        this.op = op;
+        this.nodeId = nodeId;
+        this.value = value;
+        this.position = position;
+        this.prevId = prevId;
+        this.nextId = nextId;
+        this.count = count;
+    }
+
+    static ListChangeEvent of(long sequence, Op op, int count) {
+        return new ListChangeEvent(sequence, op, Node.NO_ID, 0, -1, Node.NO_ID, Node.NO_ID, count);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d %s id=%d value=%d pos=%d prev=%d next=%d count=%d",
+                sequence, op, nodeId, value, position, prevId, nextId, count);
+    }
+}
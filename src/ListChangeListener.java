@@ -0,0 +1,15 @@
+// ListChangeListener.java - Observer for list engine mutations
+package src;
+
+import java.util.List;
+
+public interface ListChangeListener {
+    void onListChanged(ListChangeEvent event);
+
+    /** Receives events that were queued by deferred delivery, in order. */
+    default void onListChangedBatch(List<ListChangeEvent> events) {
+        for (ListChangeEvent event : events) {
+            onListChanged(event);
+        }
+    }
+}
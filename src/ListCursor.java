@@ -0,0 +1,15 @@
+// ListCursor.java - Forward read cursor over a list engine
+package src;
+
+/**
+ * Walks the nodes of a list engine from head to tail without materializing
+ * them. Call next() before the first read; it returns false once every node
+ * has been visited. A cursor is only valid until the list is next mutated.
+ */
+public interface ListCursor {
+    boolean next();
+
+    int data();
+
+    long id();
+}
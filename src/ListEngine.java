@@ -0,0 +1,180 @@
+// ListEngine.java - Common contract for every list implementation
+package src;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+/**
+ * Operations, read access and change notification shared by all list
+ * engines, so the visualizer can hold a single active list of any type.
+ */
+public interface ListEngine {
+    void insertStart(int data);
+
+    void insertEnd(int data);
+
+    void insertAt(int data, int position);
+
+    void deleteValue(int data);
+
+    void deleteAt(int position);
+
+    /** Throws UnsupportedOperationException where supportsReverse() is false. */
+    void reverse();
+
+    // Bulk edits make one pass over the list and fire a single aggregate event
+
+    void insertAll(int[] values);
+
+    void insertAllAt(int position, int[] values);
+
+    int removeIf(IntPredicate filter);
+
+    int retainRange(int from, int to);
+
+    Node search(int data);
+
+    void clear();
+
+    int size();
+
+    ListCursor cursor();
+
+    void addChangeListener(ListChangeListener listener);
+
+    void removeChangeListener(ListChangeListener listener);
+
+    /** The bus behind add/removeChangeListener, for batching and delivery control. */
+    ListChangeBus changeBus();
+
+    /** Whether nodes link back to their predecessor, so the view shows prev. */
+    default boolean hasPrevLinks() {
+        return false;
+    }
+
+    /** Whether the last node links back to the head. */
+    default boolean isCircular() {
+        return false;
+    }
+
+    /**
+     * Runs reader against one consistent state of the list and returns its
+     * result. Guarded lists may run it more than once, so it must be safe to
+     * repeat.
+     */
+    default <T> T read(Function<ListEngine, T> reader) {
+        return reader.apply(this);
+    }
+
+    /**
+     * Whether other threads may mutate the list while it is being read, so
+     * event positions cannot be trusted and views must re-read it.
+     */
+    default boolean isConcurrent() {
+        return false;
+    }
+
+    /**
+     * Whether reverse() is available. The lock-free list cannot reverse
+     * without readers seeing it half done, so it has no reverse.
+     */
+    default boolean supportsReverse() {
+        return true;
+    }
+
+    /** Whether this engine has a value index that setValueIndexEnabled can turn on. */
+    default boolean supportsValueIndex() {
+        return false;
+    }
+
+    /**
+     * Turns the optional value-to-node hash index on or off. Returns false if
+     * this engine has no value index.
+     */
+    default boolean setValueIndexEnabled(boolean enabled) {
+        return false;
+    }
+
+    default boolean isValueIndexEnabled() {
+        return false;
+    }
+
+    /** Approximate heap bytes held by the value index, or 0 when it is off. */
+    default long valueIndexBytes() {
+        return 0;
+    }
+
+    /** Whether this engine has a position index that setPositionIndexEnabled can turn on. */
+    default boolean supportsPositionIndex() {
+        return false;
+    }
+
+    /**
+     * Turns the optional skip-lane index for positional operations on or off.
+     * Returns false if this engine has no position index.
+     */
+    default boolean setPositionIndexEnabled(boolean enabled) {
+        return false;
+    }
+
+    default boolean isPositionIndexEnabled() {
+        return false;
+    }
+
+    /**
+     * Returns the nodes in order. Engines that do not store Node objects get
+     * detached views built from the cursor, linked to each other like the
+     * real list.
+     */
+    default List<Node> getNodes() {
+        return getNodes(0, size());
+    }
+
+    /**
+     * Returns up to count nodes starting at position from, linked like
+     * getNodes(), so a view can fetch just the part of the list on screen.
+     */
+    default List<Node> getNodes(int from, int count) {
+        from = Math.max(0, from);
+        count = Math.max(0, Math.min(count, size() - from));
+        List<Node> list = new ArrayList<>(count);
+        ListCursor cursor = cursor();
+        for (int i = 0; i < from; i++) {
+            cursor.next();
+        }
+        Node previous = null;
+        while (list.size() < count && cursor.next()) {
+            Node view = new Node(cursor.data(), cursor.id());
+            if (previous != null) {
+                previous.next = view;
+                if (hasPrevLinks()) {
+                    view.prev = previous;
+                }
+            }
+            list.add(view);
+            previous = view;
+        }
+        return list;
+    }
+
+    /** Creates an empty engine for one of the list type names shown in the UI. */
+    static ListEngine create(String type) {
+        switch (type) {
+            case "Doubly":
+                return new DoublyLinkedList();
+            case "Circular":
+                return new CircularLinkedList();
+            case "Array":
+                return new ArrayLinkedList();
+            case "Off-Heap":
+                return new OffHeapLinkedList();
+            case "Concurrent":
+                return new ConcurrentLinkedList();
+            case "Singly":
+                return new SinglyLinkedList();
+            default:
+                throw new IllegalArgumentException("Unknown list type: " + type);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+// ListImageExporter.java - Headless PNG export of a list, drawn in bands
+package src;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes the canvas the visualizer would show as PNG files, without a
+ * display. Drawing goes through ListRenderer, so exports match the screen.
+ *
+ * The canvas is never held whole: each output image is drawn one
+ * full-width band of rows at a time into a reused buffer and the rows are
+ * streamed straight into the PNG encoder. Lists up to MAX_STITCHED_WIDTH
+ * pixels wide become one image; longer ones are cut into TILE_WIDTH tiles
+ * named name-0000.png, name-0001.png, ... Each band only draws the nodes
+ * under it, so the export is linear in the list length.
+ */
+final class ListImageExporter {
+    static final int TILE_WIDTH = 8192;
+    static final int MAX_STITCHED_WIDTH = 1 << 15;
+    private static final int EMPTY_WIDTH = 1400;
+    private static final int BAND_HEIGHT = 100;
+
+    private final ListRenderer renderer = new ListRenderer();
+    private double slotWidth = ListRenderer.SPACING;
+    private boolean dark = true;
+
+    ListImageExporter setDarkMode(boolean dark) {
+        this.dark = dark;
+        return this;
+    }
+
+    /** Zoom to export at; the default draws full node boxes. */
+    ListImageExporter setSlotWidth(double slotWidth) {
+        this.slotWidth = slotWidth;
+        return this;
+    }
+
+    /**
+     * Exports the list's current state next to target and returns the files
+     * written: target itself, or numbered tiles when the canvas is too wide.
+     * Call on the thread that mutates the list.
+     */
+    java.util.List<Path> export(ListEngine list, Path target) throws IOException {
+        RenderModel model = new RenderModel();
+        model.rebuild(list);
+        return export(model.snapshot(), list.hasPrevLinks(), list.isCircular(), target);
+    }
+
+    java.util.List<Path> export(RenderModel.Snapshot snapshot, boolean prevLinks, boolean circular, Path target)
+            throws IOException {
+        renderer.setSlotWidth(slotWidth, snapshot.size());
+        int width = snapshot.size() == 0 ? EMPTY_WIDTH : renderer.canvasWidth(snapshot.size());
+        if (width <= MAX_STITCHED_WIDTH) {
+            write(snapshot, prevLinks, circular, 0, width, target);
+            return Collections.singletonList(target);
+        }
+
+        String name = target.getFileName().toString();
+        String stem = name.toLowerCase(Locale.ROOT).endsWith(".png") ? name.substring(0, name.length() - 4) : name;
+        java.util.List<Path> tiles = new ArrayList<>();
+        for (int x = 0, tile = 0; x < width; x += TILE_WIDTH, tile++) {
+            Path path = target.resolveSibling(String.format("%s-%04d.png", stem, tile));
+            write(snapshot, prevLinks, circular, x, Math.min(TILE_WIDTH, width - x), path);
+            tiles.add(path);
+        }
+        return tiles;
+    }
+
+    // Draws canvas columns x..x+width-1 into one PNG, a band of rows at a time
+    private void write(RenderModel.Snapshot snapshot, boolean prevLinks, boolean circular, int x, int width,
+            Path path) throws IOException {
+        int height = ListRenderer.CANVAS_HEIGHT;
+        BufferedImage band = new BufferedImage(width, BAND_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) band.getRaster().getDataBuffer()).getData();
+
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            PngWriter png = new PngWriter(out, width, height);
+            for (int y = 0; y < height; y += BAND_HEIGHT) {
+                int rows = Math.min(BAND_HEIGHT, height - y);
+                Graphics2D g2d = band.createGraphics();
+                try {
+                    g2d.setColor(RenderResources.background(dark));
+                    g2d.fillRect(0, 0, width, BAND_HEIGHT);
+                    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                    g2d.translate(-x, -y);
+                    Rectangle clip = new Rectangle(x, y, width, rows);
+                    g2d.clip(clip);
+                    if (snapshot.size() == 0) {
+                        renderer.paintEmpty(g2d, new Rectangle(0, 0, width, height), dark);
+                    } else {
+                        renderer.paint(g2d, clip, snapshot, prevLinks, circular, dark, null, 0);
+                    }
+                } finally {
+                    g2d.dispose();
+                }
+                for (int row = 0; row < rows; row++) {
+                    png.writeRow(pixels, row * width);
+                }
+            }
+            png.finish();
+        }
+    }
+
+    /**
+     * Exports a list read from a text file of whitespace-separated integers
+     * ("-" for stdin). Usage:
+     * {@code java -Djava.awt.headless=true src.ListImageExporter <list type> <values> <out.png> [--light] [--slot=px]}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: ListImageExporter <Singly|Doubly|Circular|Array|Off-Heap|Concurrent>"
+                    + " <values|-> <out.png> [--light] [--slot=px]");
+            System.exit(2);
+        }
+        ListImageExporter exporter = new ListImageExporter();
+        for (int i = 3; i < args.length; i++) {
+            if (args[i].equals("--light")) {
+                exporter.setDarkMode(false);
+            } else if (args[i].startsWith("--slot=")) {
+                exporter.setSlotWidth(Double.parseDouble(args[i].substring("--slot=".length())));
+            }
+        }
+
+        ListEngine list = ListEngine.create(args[0]);
+        try (InputStream in = args[1].equals("-") ? System.in : Files.newInputStream(Paths.get(args[1]))) {
+            list.insertAll(readValues(in));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Bad values: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        for (Path written : exporter.export(list, Paths.get(args[2]))) {
+            System.out.println(written);
+        }
+    }
+
+    // Anything between separators is one token; tokens that are not an int throw IllegalArgumentException
+    private static int[] readValues(InputStream in) throws IOException {
+        StreamTokenizer tokens = new StreamTokenizer(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        tokens.resetSyntax();
+        tokens.wordChars('!', 255);
+        tokens.whitespaceChars(0, ' ');
+        tokens.whitespaceChars(',', ',');
+        int[] values = new int[1024];
+        int count = 0;
+        while (tokens.nextToken() != StreamTokenizer.TT_EOF) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            try {
+                values[count++] = Integer.parseInt(tokens.sval);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("line " + tokens.lineno() + ": bad value '" + tokens.sval + "'");
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Minimal streaming PNG encoder for 8-bit RGB: rows are deflated as they
+     * arrive and cut into IDAT chunks, so nothing but one chunk is buffered.
+     */
+    private static final class PngWriter {
+        private static final byte[] SIGNATURE = { (byte) 137, 'P', 'N', 'G', '\r', '\n', 26, '\n' };
+        private static final int CHUNK_BYTES = 1 << 16;
+
+        private final DataOutputStream out;
+        private final DeflaterOutputStream deflater;
+        private final Deflater deflate = new Deflater(6);
+        private final byte[] row;
+        private final byte[] chunk = new byte[CHUNK_BYTES];
+        private int chunkLength;
+
+        PngWriter(OutputStream stream, int width, int height) throws IOException {
+            out = new DataOutputStream(stream);
+            row = new byte[1 + 3 * width]; // filter byte, then RGB
+            out.write(SIGNATURE);
+
+            ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+            DataOutputStream fields = new DataOutputStream(header);
+            fields.writeInt(width);
+            fields.writeInt(height);
+            fields.writeByte(8); // bit depth
+            fields.writeByte(2); // truecolor
+            fields.writeByte(0); // deflate
+            fields.writeByte(0); // adaptive filtering
+            fields.writeByte(0); // no interlace
+            writeChunk("IHDR", header.toByteArray(), header.size());
+
+            deflater = new DeflaterOutputStream(new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    write(new byte[] { (byte) b }, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    while (len > 0) {
+                        int n = Math.min(len, CHUNK_BYTES - chunkLength);
+                        System.arraycopy(b, off, chunk, chunkLength, n);
+                        chunkLength += n;
+                        off += n;
+                        len -= n;
+                        if (chunkLength == CHUNK_BYTES) {
+                            flushChunk();
+                        }
+                    }
+                }
+            }, deflate, CHUNK_BYTES);
+        }
+
+        /** Appends one row of packed RGB pixels starting at offset. */
+        void writeRow(int[] pixels, int offset) throws IOException {
+            row[0] = 0; // no filter
+            for (int i = 0, j = 1; i < (row.length - 1) / 3; i++) {
+                int pixel = pixels[offset + i];
+                row[j++] = (byte) (pixel >> 16);
+                row[j++] = (byte) (pixel >> 8);
+                row[j++] = (byte) pixel;
+            }
+            deflater.write(row);
+        }
+
+        void finish() throws IOException {
+            deflater.finish();
+            deflate.end();
+            flushChunk();
+            writeChunk("IEND", chunk, 0);
+            out.flush();
+        }
+
+        private void flushChunk() throws IOException {
+            if (chunkLength == 0)
+                return;
+            writeChunk("IDAT", chunk, chunkLength);
+            chunkLength = 0;
+        }
+
+        private void writeChunk(String type, byte[] data, int length) throws IOException {
+            byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+            CRC32 crc = new CRC32();
+            crc.update(typeBytes);
+            crc.update(data, 0, length);
+            out.writeInt(length);
+            out.write(typeBytes);
+            out.write(data, 0, length);
+            out.writeInt((int) crc.getValue());
+        }
+    }
+}
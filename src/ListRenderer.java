@@ -0,0 +1,282 @@
+// ListRenderer.java - Lays out and draws a render snapshot at any zoom level
+package src;
+
+import java.awt.*;
+
+/**
+ * Draws a list snapshot onto a single row. Node i is given a slot of
+ * slotWidth pixels starting at START_X + i * slotWidth, and the level of
+ * detail follows from how wide that slot is:
+ * <ul>
+ * <li>FULL: the 140x80 boxes with data, next and prev values</li>
+ * <li>CHIPS: small value chips, labelled while the value still fits</li>
+ * <li>DENSITY: a heat strip where each pixel column stands for the mean
+ * value of every node under it</li>
+ * </ul>
+ * Only the part of the row inside the clip is drawn.
+ */
+final class ListRenderer {
+    enum Detail {
+        FULL, CHIPS, DENSITY
+    }
+
+    static final int START_X = 100;
+    static final int NODE_Y = 200;
+    static final int NODE_WIDTH = 140;
+    static final int NODE_HEIGHT = 80;
+    static final int SPACING = 160;
+    static final int CANVAS_HEIGHT = 500;
+
+    static final double CHIP_SLOT = 40; // default zoom for medium lists
+    static final double DENSITY_SLOT = 6; // below this a chip is too thin to see
+    private static final int CHIP_HEIGHT = 36;
+    private static final int MIN_LABEL_SPACING = 90;
+    private static final long MAX_CANVAS_WIDTH = 1L << 30;
+
+    private final RenderResources resources = new RenderResources(NODE_WIDTH, NODE_HEIGHT, SPACING - NODE_WIDTH, 15, 25);
+    private double slotWidth = SPACING;
+
+    double slotWidth() {
+        return slotWidth;
+    }
+
+    /** Sets the zoom, clamped to what a list of the given size can lay out. */
+    void setSlotWidth(double slotWidth, int size) {
+        this.slotWidth = Math.max(minSlotWidth(), Math.min(maxSlotWidth(size), slotWidth));
+    }
+
+    /** The widest slot that keeps a list of this size within a drawable canvas. */
+    static double maxSlotWidth(int size) {
+        return Math.min(SPACING, (double) (MAX_CANVAS_WIDTH - 2 * START_X) / Math.max(1, size));
+    }
+
+    static double minSlotWidth() {
+        return 1e-6;
+    }
+
+    /** Zoom that suits a list of this size when shown in the given width. */
+    static double autoSlotWidth(int size, int viewWidth) {
+        if (size <= 40)
+            return SPACING;
+        if (size <= 2000)
+            return CHIP_SLOT;
+        return Math.max(minSlotWidth(), (double) (viewWidth - 2 * START_X) / size);
+    }
+
+    Detail detail() {
+        if (slotWidth >= SPACING)
+            return Detail.FULL;
+        return slotWidth >= DENSITY_SLOT ? Detail.CHIPS : Detail.DENSITY;
+    }
+
+    int canvasWidth(int size) {
+        return (int) Math.min(Integer.MAX_VALUE, 2L * START_X + (long) Math.ceil(size * slotWidth));
+    }
+
+    int nodeX(int index) {
+        return START_X + (int) Math.floor(index * slotWidth);
+    }
+
+    /** Position whose slot contains x; may be outside the list. */
+    int indexAt(int x) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, Math.floor((x - START_X) / slotWidth)));
+    }
+
+    /** Draws the list; animations may be null, and only move nodes at FULL detail. */
+    void paint(Graphics2D g2d, Rectangle clip, RenderModel.Snapshot snapshot, boolean prevLinks, boolean circular,
+            boolean dark, AnimationEngine animations, long now) {
+        int size = snapshot.size();
+        resources.beginFrame(g2d);
+        switch (detail()) {
+            case FULL:
+                paintFull(g2d, clip, snapshot, prevLinks, circular, dark, animations, now);
+                break;
+            case CHIPS:
+                paintChips(g2d, clip, snapshot, dark, animations, now);
+                break;
+            default:
+                paintDensity(g2d, clip, snapshot);
+                break;
+        }
+        if (detail() != Detail.FULL) {
+            paintIndexLabels(g2d, clip, size);
+        }
+        if (circular && size > 1) {
+            drawCircularConnection(g2d, size);
+        }
+    }
+
+    /** Centers the empty-list message in area. */
+    void paintEmpty(Graphics2D g2d, Rectangle area, boolean dark) {
+        g2d.setFont(RenderResources.EMPTY_TITLE_FONT);
+        g2d.setColor(dark ? RenderResources.DARK_MESSAGE : RenderResources.LIGHT_MESSAGE);
+
+        String message = "🚀 Linked List is Empty";
+        FontMetrics fm = g2d.getFontMetrics();
+        int x = area.x + (area.width - fm.stringWidth(message)) / 2;
+        int y = area.y + area.height / 2 - 20;
+        g2d.drawString(message, x, y);
+
+        g2d.setFont(RenderResources.EMPTY_SUBTITLE_FONT);
+        String subtitle = "Add nodes to begin visualization!";
+        fm = g2d.getFontMetrics();
+        x = area.x + (area.width - fm.stringWidth(subtitle)) / 2;
+        y = area.y + area.height / 2 + 20;
+        g2d.drawString(subtitle, x, y);
+    }
+
+    // Node i owns the strip from its left edge up to the next node, arrow
+    // included, so the clip maps straight to the index range to draw
+    private void paintFull(Graphics2D g2d, Rectangle clip, RenderModel.Snapshot snapshot, boolean prevLinks,
+            boolean circular, boolean dark, AnimationEngine animations, long now) {
+        int size = snapshot.size();
+        int first = indexAt(clip.x);
+        int last = indexAt(clip.x + clip.width - 1);
+        if (animations != null && animations.isMirroring()) {
+            first = 0;
+            last = size - 1;
+        } else if (animations != null && animations.isAnimating()) {
+            // Sliding nodes can be up to one slot away from where they rest
+            first--;
+            last++;
+        }
+        first = Math.max(0, first);
+        last = Math.min(size - 1, last);
+
+        if (animations != null) {
+            for (int ghost = animations.ghostCount() - 1; ghost >= 0; ghost--) {
+                resources.drawGhost(g2d, nodeX(animations.ghostPosition(ghost)), NODE_Y,
+                        animations.ghostValue(ghost), animations.ghostAlpha(ghost, now), prevLinks, dark);
+            }
+        }
+        if (first > last)
+            return;
+
+        // Neighbour values come from the snapshot too
+        for (int i = first; i <= last; i++) {
+            boolean hasNext = i + 1 < size || circular;
+            boolean hasPrev = i > 0 || circular;
+            int next = hasNext ? snapshot.value(i + 1 < size ? i + 1 : 0) : 0;
+            int prev = hasPrev ? snapshot.value(i > 0 ? i - 1 : size - 1) : 0;
+            float highlight = animations == null ? 0f : animations.highlightAlpha(snapshot.id(i), now);
+            resources.drawNode(g2d, animatedX(i, animations, now), NODE_Y, i, snapshot.value(i), hasNext, next,
+                    hasPrev, prev, highlight, prevLinks, dark);
+        }
+
+        // Draws the arrows leaving nodes first..last
+        for (int i = first; i <= Math.min(last, size - 2); i++) {
+            int x1 = animatedX(i, animations, now) + NODE_WIDTH;
+            int x2 = animatedX(i + 1, animations, now);
+            resources.drawConnector(g2d, x1, x2, NODE_Y + NODE_HEIGHT / 2, dark);
+        }
+    }
+
+    // Where node i is drawn at time now, including any movement in progress
+    private int animatedX(int index, AnimationEngine animations, long now) {
+        return animations == null ? nodeX(index) : nodeX(index) + animations.offsetX(index, SPACING, now);
+    }
+
+    private void paintChips(Graphics2D g2d, Rectangle clip, RenderModel.Snapshot snapshot, boolean dark,
+            AnimationEngine animations, long now) {
+        int size = snapshot.size();
+        int first = Math.max(0, indexAt(clip.x));
+        int last = Math.min(size - 1, indexAt(clip.x + clip.width - 1));
+        int width = chipWidth();
+        int y = NODE_Y + (NODE_HEIGHT - CHIP_HEIGHT) / 2;
+        for (int i = first; i <= last; i++) {
+            boolean highlighted = animations != null && animations.highlightAlpha(snapshot.id(i), now) > 0f;
+            int x = nodeX(i);
+            resources.drawChip(g2d, x, y, width, CHIP_HEIGHT, snapshot.value(i), highlighted, dark);
+            int gap = nodeX(i + 1) - x - width;
+            if (i + 1 < size && gap >= 4) {
+                resources.drawThinLink(g2d, x + width, nodeX(i + 1), y + CHIP_HEIGHT / 2, dark);
+            }
+        }
+    }
+
+    private int chipWidth() {
+        return Math.max(1, (int) Math.floor(slotWidth * 0.75));
+    }
+
+    // One pixel column at a time, merging runs of columns that share a color
+    private void paintDensity(Graphics2D g2d, Rectangle clip, RenderModel.Snapshot snapshot) {
+        RenderModel.Density density = snapshot.density();
+        int size = snapshot.size();
+        int lowest = density.lowest();
+        double range = Math.max(1, (long) density.highest() - lowest);
+        int left = Math.max(clip.x, nodeX(0));
+        int right = Math.min(clip.x + clip.width, canvasWidth(size) - START_X);
+
+        int runStart = left;
+        int runShade = -1;
+        for (int x = left; x < right; x++) {
+            int from = indexAt(x);
+            int to = Math.max(from + 1, indexAt(x + 1));
+            int shade = (int) Math.round((density.mean(from, to) - lowest) / range * (RenderResources.HEAT_SHADES - 1));
+            if (shade != runShade) {
+                fillDensityRun(g2d, runStart, x, runShade);
+                runStart = x;
+                runShade = shade;
+            }
+        }
+        fillDensityRun(g2d, runStart, right, runShade);
+    }
+
+    private void fillDensityRun(Graphics2D g2d, int from, int to, int shade) {
+        if (shade < 0 || to <= from)
+            return;
+        g2d.setColor(RenderResources.heat(shade));
+        g2d.fillRect(from, NODE_Y, to - from, NODE_HEIGHT);
+    }
+
+    // Index labels at a round step that keeps them from overlapping
+    private void paintIndexLabels(Graphics2D g2d, Rectangle clip, int size) {
+        long step = labelStep(MIN_LABEL_SPACING / slotWidth);
+        long first = Math.max(0, indexAt(clip.x - MIN_LABEL_SPACING)) / step * step;
+        int last = Math.min(size - 1, indexAt(clip.x + clip.width));
+        for (long i = first; i <= last; i += step) {
+            resources.drawIndexLabel(g2d, nodeX((int) i), NODE_Y - 5, (int) i);
+        }
+    }
+
+    // Smallest of 1, 2, 5, 10, 20, 50, ... that is at least minimum
+    private static long labelStep(double minimum) {
+        long step = 1;
+        while (true) {
+            if (step >= minimum)
+                return step;
+            if (step * 2 >= minimum)
+                return step * 2;
+            if (step * 5 >= minimum)
+                return step * 5;
+            step *= 10;
+        }
+    }
+
+    private void drawCircularConnection(Graphics2D g2d, int size) {
+        int y = NODE_Y;
+        int nodeHeight = NODE_HEIGHT;
+
+        g2d.setColor(RenderResources.CIRCULAR_COLOR);
+        g2d.setStroke(RenderResources.LINK_STROKE);
+
+        int boxWidth = detail() == Detail.FULL ? NODE_WIDTH : detail() == Detail.CHIPS ? chipWidth() : 0;
+        int firstX = START_X;
+        int firstY = y + nodeHeight / 2;
+        int lastX = nodeX(size - 1) + boxWidth;
+        int lastY = y + nodeHeight / 2;
+
+        // Draw curved connection
+        int controlX = (int) (((long) firstX + lastX) / 2);
+        int controlY = y - 50;
+
+        g2d.drawLine(lastX, lastY, controlX, controlY);
+        g2d.drawLine(controlX, controlY, firstX, firstY);
+
+        resources.fillArrowHead(g2d, firstX, firstY, 0);
+
+        // Label
+        g2d.setFont(RenderResources.LABEL_FONT);
+        g2d.drawString("↻ Circular", lastX + 10, y + nodeHeight / 2);
+    }
+}
@@ -7,16 +7,36 @@ import java.util.*;
 
 public class Main extends JFrame {
     private VisualizerPanel panel;
+    private MinimapPanel minimap;
     private JTextField valueField;
     private JTextField positionField;
     private JComboBox<String> listType;
     private JToggleButton darkModeToggle;
+    private JCheckBox valueIndexToggle;
+    private JCheckBox positionIndexToggle;
+    private JButton reverseButton; // disabled for lists that cannot reverse
 
     // ML Component - Simple addition
     private SmartPredictor smartPredictor;
     private JPanel predictionPanel;
     private JTextArea predictionArea;
 
+    // Concurrent list throughput readout
+    private JTextArea throughputArea;
+    private JButton scalingButton;
+    private long lastOperationCount;
+    private long lastRetryCount;
+
+    // Live operation latencies, also published over JMX
+    private JPanel statsPanel;
+    private JTextArea statsArea;
+    private String jmxProblem; // why the metrics are not published over JMX, or null
+
+    // Workload script playback
+    private WorkloadPlayer player;
+    private JComboBox<String> playbackSpeed;
+    private JLabel playbackStatus;
+
     public Main() {
         setTitle("🚀 Linked List Visualizer");
         setSize(1400, 800);
@@ -34,14 +54,32 @@ public class Main extends JFrame {
         valueField = new JTextField(8);
         positionField = new JTextField(8);
 
-        String[] modes = { "Singly", "Doubly", "Circular" };
+        String[] modes = { "Singly", "Doubly", "Circular", "Array", "Off-Heap", "Concurrent" };
         listType = new JComboBox<>(modes);
         darkModeToggle = new JToggleButton("🌙 Dark Mode", true);
+        valueIndexToggle = new JCheckBox("Off");
+        positionIndexToggle = new JCheckBox("Off");
 
         // ML Initialization
         smartPredictor = new SmartPredictor();
         predictionArea = new JTextArea(8, 20);
         predictionArea.setEditable(false);
+
+        throughputArea = new JTextArea(9, 20);
+        throughputArea.setEditable(false);
+
+        statsArea = new JTextArea(12, 34);
+        statsArea.setEditable(false);
+        try {
+            panel.getMetrics().register();
+        } catch (javax.management.JMException | SecurityException e) {
+            jmxProblem = "JMX unavailable: " + e;
+        }
+
+        player = new WorkloadPlayer(panel);
+        playbackSpeed = new JComboBox<>(new String[] { "Script rate", "1 op/s", "5 ops/s", "20 ops/s", "100 ops/s",
+                "1000 ops/s", "Max" });
+        playbackStatus = new JLabel("No script loaded");
     }
 
     private void setupUI() {
@@ -49,14 +87,26 @@ public class Main extends JFrame {
         JPanel headerPanel = createHeader();
         add(headerPanel, BorderLayout.NORTH);
 
-        // Visualization panel
-        add(panel, BorderLayout.CENTER);
+        // Visualization panel, scrolled sideways once the list outgrows the window
+        JScrollPane canvas = new JScrollPane(panel,
+                ScrollPaneConstants.VERTICAL_SCROLLBAR_NEVER,
+                ScrollPaneConstants.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+        canvas.setBorder(BorderFactory.createEmptyBorder());
+        minimap = new MinimapPanel(panel, canvas.getViewport());
+        JPanel canvasPanel = new JPanel(new BorderLayout());
+        canvasPanel.add(canvas, BorderLayout.CENTER);
+        canvasPanel.add(minimap, BorderLayout.SOUTH);
+        add(canvasPanel, BorderLayout.CENTER);
 
         // Control panel
         add(createControlPanel(), BorderLayout.SOUTH);
 
-        // ML Predictions panel - Simple addition to right side
-        add(createPredictionPanel(), BorderLayout.EAST);
+        // ML Predictions panel - Simple addition to right side, concurrency readout below it
+        JPanel sidePanel = new JPanel(new BorderLayout());
+        sidePanel.add(createStatsPanel(), BorderLayout.WEST);
+        sidePanel.add(createPredictionPanel(), BorderLayout.CENTER);
+        sidePanel.add(createThroughputPanel(), BorderLayout.SOUTH);
+        add(sidePanel, BorderLayout.EAST);
     }
 
     private JPanel createPredictionPanel() {
@@ -89,7 +139,22 @@ public class Main extends JFrame {
 
         predictionPanel.add(titleLabel, BorderLayout.NORTH);
         predictionPanel.add(scrollPane, BorderLayout.CENTER);
-        predictionPanel.add(refreshBtn, BorderLayout.SOUTH);
+        JToggleButton statsBtn = new JToggleButton("📊 Stats");
+        statsBtn.setBackground(new Color(142, 68, 173));
+        statsBtn.setForeground(Color.WHITE);
+        statsBtn.setToolTipText("Show operation latencies (also at " + OperationMetrics.OBJECT_NAME + " over JMX)");
+        statsBtn.addActionListener(e -> {
+            statsPanel.setVisible(statsBtn.isSelected());
+            updateStats();
+            revalidate();
+        });
+
+        JPanel predictionButtons = new JPanel(new GridLayout(1, 2, 5, 0));
+        predictionButtons.setOpaque(false);
+        predictionButtons.add(refreshBtn);
+        predictionButtons.add(statsBtn);
+
+        predictionPanel.add(predictionButtons, BorderLayout.SOUTH);
 
         // Initial prediction update
         updatePredictions();
@@ -97,6 +162,159 @@ public class Main extends JFrame {
         return predictionPanel;
     }
 
+    private JPanel createThroughputPanel() {
+        JPanel throughputPanel = new JPanel(new BorderLayout());
+        throughputPanel.setBackground(new Color(40, 40, 60));
+        throughputPanel.setPreferredSize(new Dimension(250, 260));
+        throughputPanel.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(new Color(100, 100, 140), 1),
+                BorderFactory.createEmptyBorder(10, 10, 10, 10)));
+
+        JLabel titleLabel = new JLabel("⚙️ Concurrency");
+        titleLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        titleLabel.setForeground(Color.WHITE);
+        titleLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
+        throughputArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+        throughputArea.setBackground(new Color(30, 30, 40));
+        throughputArea.setForeground(Color.WHITE);
+
+        scalingButton = new JButton("🔥 Scaling Test");
+        scalingButton.setBackground(new Color(230, 126, 34));
+        scalingButton.setForeground(Color.WHITE);
+        scalingButton.setToolTipText("Hammer a separate lock-free list from 1 up to "
+                + Runtime.getRuntime().availableProcessors() + " threads");
+        scalingButton.addActionListener(e -> runScalingTest());
+
+        throughputPanel.add(titleLabel, BorderLayout.NORTH);
+        throughputPanel.add(new JScrollPane(throughputArea), BorderLayout.CENTER);
+        JButton complexityButton = new JButton("📈 Complexity");
+        complexityButton.setBackground(new Color(52, 152, 219));
+        complexityButton.setForeground(Color.WHITE);
+        complexityButton.setToolTipText("Chart how each list's hops and time grow with n");
+        complexityButton.addActionListener(e -> showComplexityProfiler());
+
+        JPanel buttonRow = new JPanel(new GridLayout(2, 1, 0, 5));
+        buttonRow.setOpaque(false);
+        buttonRow.add(scalingButton);
+        buttonRow.add(complexityButton);
+        throughputPanel.add(buttonRow, BorderLayout.SOUTH);
+
+        // Live rate of whatever is mutating the concurrent list, twice a second
+        new javax.swing.Timer(500, e -> updateLiveThroughput()).start();
+        return throughputPanel;
+    }
+
+    // Hidden until the Stats button is pressed; recording runs regardless
+    private JPanel createStatsPanel() {
+        statsPanel = new JPanel(new BorderLayout());
+        statsPanel.setBackground(new Color(40, 40, 60));
+        statsPanel.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(new Color(100, 100, 140), 1),
+                BorderFactory.createEmptyBorder(10, 10, 10, 10)));
+
+        JLabel titleLabel = new JLabel("📊 Operation Latency");
+        titleLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        titleLabel.setForeground(Color.WHITE);
+        titleLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
+        statsArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+        statsArea.setBackground(new Color(30, 30, 40));
+        statsArea.setForeground(Color.WHITE);
+
+        JButton resetButton = new JButton("↺ Reset");
+        resetButton.setBackground(new Color(127, 140, 141));
+        resetButton.setForeground(Color.WHITE);
+        resetButton.addActionListener(e -> {
+            panel.getMetrics().reset();
+            updateStats();
+        });
+
+        statsPanel.add(titleLabel, BorderLayout.NORTH);
+        statsPanel.add(new JScrollPane(statsArea), BorderLayout.CENTER);
+        statsPanel.add(resetButton, BorderLayout.SOUTH);
+        statsPanel.setVisible(false);
+
+        new javax.swing.Timer(500, e -> updateStats()).start();
+        return statsPanel;
+    }
+
+    private void updateStats() {
+        if (!statsPanel.isVisible())
+            return;
+        OperationMetrics metrics = panel.getMetrics();
+        StringBuilder text = new StringBuilder(String.format("%-12s %7s %7s %7s %8s%n", "µs", "count", "p50",
+                "p99", "max"));
+        for (OperationMetricsMXBean.Stats stats : metrics.getOperations()) {
+            text.append(String.format("%-12s %,7d %7.1f %7.1f %8.1f%n", stats.getName(), stats.getCount(),
+                    stats.getP50Micros(), stats.getP99Micros(), stats.getMaxMicros()));
+        }
+        text.append(String.format("%nOperations: %,d%nAllocated:  %,.1f KB%n", metrics.getOperationCount(),
+                metrics.getAllocatedBytes() / 1024.0));
+        if (jmxProblem != null) {
+            text.append('\n').append(jmxProblem).append('\n');
+        }
+        statsArea.setText(text.toString());
+    }
+
+    private void updateLiveThroughput() {
+        if (!(panel.getList() instanceof ConcurrentLinkedList) || !scalingButton.isEnabled())
+            return;
+        ConcurrentLinkedList list = (ConcurrentLinkedList) panel.getList();
+        long operations = list.operationCount() - lastOperationCount;
+        long retries = list.retryCount() - lastRetryCount;
+        lastOperationCount = list.operationCount();
+        lastRetryCount = list.retryCount();
+        throughputArea.setText(String.format("Live: %,d ops/s%n      %,d retries/s%nNodes: %,d%n",
+                operations * 2, retries * 2, list.size()));
+    }
+
+    // Non-modal, so the profiler can run while the visualizer stays usable
+    private void showComplexityProfiler() {
+        JDialog dialog = new JDialog(this, "📈 Empirical Complexity", false);
+        dialog.setContentPane(new ComplexityPanel());
+        dialog.pack();
+        dialog.setLocationRelativeTo(this);
+        dialog.setVisible(true);
+    }
+
+    // Runs the probe at 1, 2, 4, ... threads up to the core count, reporting each step as it finishes.
+    // The probe gets a list of its own: on the panel's list every operation would queue a repaint.
+    private void runScalingTest() {
+        ConcurrentLinkedList list = new ConcurrentLinkedList();
+        int cores = Runtime.getRuntime().availableProcessors();
+        scalingButton.setEnabled(false);
+        throughputArea.setText(String.format("Scaling on %d cores...%n", cores));
+
+        new SwingWorker<Void, ThroughputProbe.Result>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                for (int threads = 1; threads <= cores; threads = threads == cores ? cores + 1
+                        : Math.min(cores, threads * 2)) {
+                    publish(ThroughputProbe.run(list, threads, 500));
+                }
+                return null;
+            }
+
+            @Override
+            protected void process(java.util.List<ThroughputProbe.Result> results) {
+                for (ThroughputProbe.Result result : results) {
+                    throughputArea.append(result + "\n");
+                }
+            }
+
+            @Override
+            protected void done() {
+                scalingButton.setEnabled(true);
+                if (panel.getList() instanceof ConcurrentLinkedList) {
+                    ConcurrentLinkedList live = (ConcurrentLinkedList) panel.getList();
+                    lastOperationCount = live.operationCount();
+                    lastRetryCount = live.retryCount();
+                }
+            }
+        }.execute();
+    }
+
     private void updatePredictions() {
         java.util.List<SmartPredictor.Prediction> predictions = smartPredictor.getPredictions();
 
@@ -112,7 +330,7 @@ public class Main extends JFrame {
                 predictionText.append("• ").append(prediction.toString()).append("\n");
                 // The reasoning field may use two spaces in the SmartPredictor provided,
                 // keeping the formatting consistent with the input file.
-                predictionText.append("  ").append(prediction.reasoning).append("\n\n");
+                predictionText.append("  ").append(prediction.getReasoning()).append("\n\n");
             }
         }
 
@@ -152,6 +370,7 @@ public class Main extends JFrame {
 
         darkModeToggle.addActionListener(e -> {
             panel.setDarkMode(darkModeToggle.isSelected());
+            minimap.setDarkMode(darkModeToggle.isSelected());
             darkModeToggle.setText(darkModeToggle.isSelected() ? "🌙 Dark Mode" : "☀️ Light Mode");
         });
 
@@ -169,13 +388,16 @@ public class Main extends JFrame {
         controlPanel.setBackground(new Color(50, 50, 80));
         controlPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
 
-        JPanel inputPanel = new JPanel(new GridLayout(1, 4, 15, 0));
+        JPanel inputPanel = new JPanel(new GridLayout(1, 5, 15, 0));
         inputPanel.setBackground(new Color(50, 50, 80));
 
         inputPanel.add(createInputField("🎯 Node Value", valueField));
         inputPanel.add(createInputField("📍 Position", positionField));
         inputPanel.add(createListTypeSelector());
-        inputPanel.add(new JLabel());
+        inputPanel.add(createIndexToggle("⚡ Value Index", valueIndexToggle,
+                "Hash index for O(1) search and delete of distinct values"));
+        inputPanel.add(createIndexToggle("🧭 Position Index", positionIndexToggle,
+                "Skip lanes for O(log n) insert and delete at a position"));
 
         JPanel buttonPanel = new JPanel(new GridLayout(2, 4, 10, 10));
         buttonPanel.setBackground(new Color(50, 50, 80));
@@ -185,17 +407,77 @@ public class Main extends JFrame {
         buttonPanel.add(createColorButton("Insert At", "🎯", new Color(155, 89, 182)));
         buttonPanel.add(createColorButton("Delete Value", "🗑️", new Color(231, 76, 60)));
         buttonPanel.add(createColorButton("Delete At", "❌", new Color(192, 57, 43)));
-        buttonPanel.add(createColorButton("Reverse", "🔄", new Color(142, 68, 173)));
+        reverseButton = createColorButton("Reverse", "🔄", new Color(142, 68, 173));
+        buttonPanel.add(reverseButton);
         buttonPanel.add(createColorButton("Search", "🔍", new Color(241, 196, 15)));
         buttonPanel.add(createColorButton("Clear", "✨", new Color(39, 174, 96)));
 
         controlPanel.add(inputPanel);
         controlPanel.add(Box.createRigidArea(new Dimension(0, 15)));
         controlPanel.add(buttonPanel);
+        controlPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+        controlPanel.add(createPlaybackPanel());
 
         return controlPanel;
     }
 
+    private JPanel createPlaybackPanel() {
+        JPanel playbackPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        playbackPanel.setBackground(new Color(50, 50, 80));
+
+        JLabel label = new JLabel("📜 Workload Script");
+        label.setForeground(Color.WHITE);
+        label.setFont(new Font("Arial", Font.BOLD, 14));
+
+        JButton playButton = createColorButton("Play Script", "▶", new Color(22, 160, 133));
+        JButton stopButton = createColorButton("Stop Script", "⏹", new Color(127, 140, 141));
+        playbackSpeed.setFont(new Font("Arial", Font.BOLD, 12));
+        playbackStatus.setForeground(Color.WHITE);
+        playbackStatus.setFont(new Font("Arial", Font.PLAIN, 12));
+
+        player.setOnProgress(played -> playbackStatus.setText(String.format("Played %,d ops", played)));
+        player.setOnFinished(() -> playbackStatus.setText(playbackStatus.getText() + " - done"));
+
+        playbackPanel.add(label);
+        playbackPanel.add(playButton);
+        playbackPanel.add(stopButton);
+        playbackPanel.add(playbackSpeed);
+        playbackPanel.add(playbackStatus);
+        return playbackPanel;
+    }
+
+    // Same script format as the headless WorkloadRunner
+    private void playScript() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Choose a workload script");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION)
+            return;
+        Workload workload;
+        try {
+            workload = Workload.parse(chooser.getSelectedFile());
+        } catch (IllegalArgumentException | java.io.IOException ex) {
+            JOptionPane.showMessageDialog(this, "Cannot read script: " + ex.getMessage(),
+                    "Script Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (workload.uses(Workload.Op.REVERSE) && !panel.getList().supportsReverse()) {
+            JOptionPane.showMessageDialog(this, "This script reverses the list, which the "
+                    + listType.getSelectedItem() + " list cannot do.", "Script Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        String speed = (String) playbackSpeed.getSelectedItem();
+        double opsPerSecond;
+        if (speed.equals("Script rate")) {
+            opsPerSecond = workload.rate();
+        } else if (speed.equals("Max")) {
+            opsPerSecond = 0;
+        } else {
+            opsPerSecond = Double.parseDouble(speed.substring(0, speed.indexOf(' ')));
+        }
+        playbackStatus.setText("Playing " + chooser.getSelectedFile().getName());
+        player.play(workload, opsPerSecond);
+    }
+
     private JPanel createInputField(String label, JTextField field) {
         JPanel containerPanel = new JPanel(new BorderLayout());
         containerPanel.setBackground(new Color(50, 50, 80));
@@ -236,8 +518,9 @@ public class Main extends JFrame {
                 BorderFactory.createEmptyBorder(8, 12, 8, 12)));
 
         listType.addActionListener(e -> {
-            panel.mode = (String) listType.getSelectedItem();
-            panel.clear();
+            panel.setMode((String) listType.getSelectedItem());
+            updateIndexToggles();
+            reverseButton.setEnabled(panel.getList().supportsReverse());
             updatePredictions(); // Also update predictions when the list type changes
         });
 
@@ -247,6 +530,63 @@ public class Main extends JFrame {
         return containerPanel;
     }
 
+    private JPanel createIndexToggle(String text, JCheckBox toggle, String tooltip) {
+        JPanel containerPanel = new JPanel(new BorderLayout());
+        containerPanel.setBackground(new Color(50, 50, 80));
+
+        JLabel label = new JLabel(text);
+        label.setForeground(Color.WHITE);
+        label.setFont(new Font("Arial", Font.BOLD, 14));
+        label.setBorder(BorderFactory.createEmptyBorder(0, 0, 5, 0));
+
+        toggle.setFont(new Font("Arial", Font.BOLD, 14));
+        toggle.setBackground(new Color(30, 30, 40));
+        toggle.setForeground(Color.WHITE);
+        toggle.setFocusPainted(false);
+        toggle.setToolTipText(tooltip);
+
+        toggle.addActionListener(e -> {
+            panel.setValueIndexEnabled(valueIndexToggle.isSelected());
+            panel.setPositionIndexEnabled(positionIndexToggle.isSelected());
+            updateIndexToggles();
+        });
+
+        containerPanel.add(label, BorderLayout.NORTH);
+        containerPanel.add(toggle, BorderLayout.CENTER);
+
+        return containerPanel;
+    }
+
+    // Shows whether the active list is indexed; the panel has already applied the toggles to it
+    private void updateIndexToggles() {
+        ListEngine list = panel.getList();
+        boolean valueSupported = list.supportsValueIndex();
+        valueIndexToggle.setEnabled(valueSupported);
+        if (!valueSupported) {
+            valueIndexToggle.setText("Not available");
+        } else if (list.isValueIndexEnabled()) {
+            updateValueIndexBytes();
+        } else {
+            valueIndexToggle.setText("Off");
+        }
+
+        boolean positionSupported = list.supportsPositionIndex();
+        positionIndexToggle.setEnabled(positionSupported);
+        if (!positionSupported) {
+            positionIndexToggle.setText("Not available");
+        } else {
+            positionIndexToggle.setText(list.isPositionIndexEnabled() ? "On" : "Off");
+        }
+    }
+
+    // Refreshes the value index's memory use on its toggle, only while it is on and on screen
+    private void updateValueIndexBytes() {
+        ListEngine list = panel.getList();
+        if (!valueIndexToggle.isShowing() || !list.isValueIndexEnabled())
+            return;
+        valueIndexToggle.setText(String.format("On (%.1f KB)", list.valueIndexBytes() / 1024.0));
+    }
+
     private JButton createColorButton(String text, String emoji, Color color) {
         JButton button = new JButton(emoji + " " + text);
         button.setFont(new Font("Arial", Font.BOLD, 12));
@@ -275,62 +615,72 @@ public class Main extends JFrame {
     }
 
     private void handleButtonAction(String action) {
+        if (action.equals("Play Script")) {
+            playScript();
+            return;
+        }
+        if (action.equals("Stop Script")) {
+            if (player.isPlaying()) {
+                player.stop();
+                playbackStatus.setText(playbackStatus.getText() + " - stopped");
+            }
+            return;
+        }
         try {
             // --- 1. Execute Linked List Operation ---
+            // value is what the predictor records: the value, or the position for positional operations
+            Workload.Op operation;
+            int value = 0;
             switch (action) {
                 case "Insert Start":
-                    panel.insertStart(Integer.parseInt(valueField.getText()));
+                    value = Integer.parseInt(valueField.getText());
+                    panel.insertStart(value);
+                    operation = Workload.Op.INSERT_START;
                     break;
                 case "Insert End":
-                    panel.insertEnd(Integer.parseInt(valueField.getText()));
+                    value = Integer.parseInt(valueField.getText());
+                    panel.insertEnd(value);
+                    operation = Workload.Op.INSERT_END;
                     break;
                 case "Insert At":
-                    panel.insertAt(Integer.parseInt(valueField.getText()),
-                            Integer.parseInt(positionField.getText()));
+                    value = Integer.parseInt(positionField.getText());
+                    panel.insertAt(Integer.parseInt(valueField.getText()), value);
+                    operation = Workload.Op.INSERT_AT;
                     break;
                 case "Delete Value":
-                    panel.deleteValue(Integer.parseInt(valueField.getText()));
+                    value = Integer.parseInt(valueField.getText());
+                    panel.deleteValue(value);
+                    operation = Workload.Op.DELETE_VALUE;
                     break;
                 case "Delete At":
-                    panel.deleteAt(Integer.parseInt(positionField.getText()));
+                    value = Integer.parseInt(positionField.getText());
+                    panel.deleteAt(value);
+                    operation = Workload.Op.DELETE_AT;
                     break;
                 case "Reverse":
                     panel.reverse();
+                    operation = Workload.Op.REVERSE;
                     break;
                 case "Search":
-                    panel.search(Integer.parseInt(valueField.getText()));
+                    value = Integer.parseInt(valueField.getText());
+                    panel.search(value);
+                    operation = Workload.Op.SEARCH;
                     break;
                 case "Clear":
                     panel.clear();
+                    operation = Workload.Op.CLEAR;
                     break;
+                default:
+                    return;
             }
 
             // --- 2. Record Operation for Smart Predictor ---
-            String operation = action.toUpperCase().replace(" ", "_");
-            int value = 0;
-            try {
-                if (action.equals("Insert Start") || action.equals("Insert End") ||
-                        action.equals("Delete Value") || action.equals("Search")) {
-                    // Use valueField for these
-                    if (!valueField.getText().isEmpty()) {
-                        value = Integer.parseInt(valueField.getText());
-                    }
-                } else if (action.equals("Insert At") || action.equals("Delete At")) {
-                    // Use positionField for these (which is treated as the 'value' context in the
-                    // predictor)
-                    if (!positionField.getText().isEmpty()) {
-                        value = Integer.parseInt(positionField.getText());
-                    }
-                }
-            } catch (NumberFormatException ignored) {
-                // If parsing fails, value remains 0.
-            }
-
             smartPredictor.recordOperation(operation, value);
 
             // --- 3. Clear fields and Update UI ---
             valueField.setText("");
             positionField.setText("");
+            updateValueIndexBytes();
             updatePredictions(); // Update predictions after EACH successful operation!
 
         } catch (NumberFormatException ex) {
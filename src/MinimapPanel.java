@@ -0,0 +1,108 @@
+// MinimapPanel.java - Whole-list overview strip for navigating long lists
+package src;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+/**
+ * Shows the entire list as a density strip across its width, with a frame
+ * around the part the canvas is showing. Clicking or dragging centers the
+ * canvas on that point of the list.
+ */
+final class MinimapPanel extends JComponent {
+    private static final int HEIGHT = 36;
+    private static final int PAD = 4;
+    private static final Color VIEW_FRAME = new Color(255, 255, 255, 180);
+    private static final Color VIEW_FILL = new Color(255, 255, 255, 40);
+
+    private final VisualizerPanel panel;
+    private final JViewport viewport;
+    private boolean dark = true;
+
+    MinimapPanel(VisualizerPanel panel, JViewport viewport) {
+        this.panel = panel;
+        this.viewport = viewport;
+        setOpaque(true);
+        setToolTipText("Click or drag to jump to that part of the list");
+
+        viewport.addChangeListener(e -> repaint());
+        panel.addPropertyChangeListener("listVersion", e -> repaint());
+
+        MouseAdapter jump = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                jumpTo(e.getX());
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                jumpTo(e.getX());
+            }
+        };
+        addMouseListener(jump);
+        addMouseMotionListener(jump);
+    }
+
+    void setDarkMode(boolean dark) {
+        this.dark = dark;
+        repaint();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(super.getPreferredSize().width, HEIGHT);
+    }
+
+    private void jumpTo(int x) {
+        int width = stripWidth();
+        if (width <= 0)
+            return;
+        panel.scrollToFraction((double) (x - PAD) / width);
+    }
+
+    private int stripWidth() {
+        return getWidth() - 2 * PAD;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.setColor(RenderResources.background(dark));
+        g.fillRect(0, 0, getWidth(), getHeight());
+
+        RenderModel.Snapshot snapshot = panel.getSnapshot();
+        int size = snapshot.size();
+        int width = stripWidth();
+        if (size == 0 || width <= 0)
+            return;
+
+        // Same shading as the zoomed-out canvas, one pixel column per slice of the list
+        RenderModel.Density density = snapshot.density();
+        int lowest = density.lowest();
+        double range = Math.max(1, (long) density.highest() - lowest);
+        int top = PAD;
+        int height = getHeight() - 2 * PAD;
+        for (int x = 0; x < width; x++) {
+            int from = (int) ((long) x * size / width);
+            int to = Math.max(from + 1, (int) ((long) (x + 1) * size / width));
+            if (from >= size)
+                break;
+            int shade = (int) Math.round((density.mean(from, to) - lowest) / range * (RenderResources.HEAT_SHADES - 1));
+            g.setColor(RenderResources.heat(shade));
+            g.fillRect(PAD + x, top, 1, height);
+        }
+
+        // Frame the part of the list the canvas is showing
+        double listWidth = Math.max(1, panel.getListWidth());
+        Rectangle view = viewport.getViewRect();
+        int left = PAD + (int) (Math.max(0, view.x - ListRenderer.START_X) / listWidth * width);
+        int right = PAD + (int) (Math.min(listWidth, view.x + view.width - ListRenderer.START_X) / listWidth * width);
+        left = Math.min(left, PAD + width - 2);
+        right = Math.max(left + 2, Math.min(PAD + width, right));
+        g.setColor(VIEW_FILL);
+        g.fillRect(left, 1, right - left, getHeight() - 2);
+        g.setColor(VIEW_FRAME);
+        g.drawRect(left, 1, right - left - 1, getHeight() - 3);
+    }
+}
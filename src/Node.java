@@ -1,20 +1,41 @@
 // Node.java - UPDATED
 package src;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 public class Node {
+    // Ids start at 1 so that NO_ID can stand for "no node" in listener events
+    public static final long NO_ID = 0L;
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+
     int data;
     Node next;
     Node prev;
-    String id; // Unique identifier for animation
+    long id; // Unique identifier for animation
 
     public Node(int data) {
         this.data = data;
         this.next = null;
         this.prev = null;
-        this.id = System.currentTimeMillis() + "-" + Math.random();
+        this.id = nextId();
+    }
+
+    // Detached view of a node owned by a non-object list engine, which supplies its own id
+    Node(int data, long id) {
+        this.data = data;
+        this.id = id;
     }
 
-    public String getId() {
+    // Also used by engines that keep their own node objects
+    static long nextId() {
+        return ID_SEQUENCE.incrementAndGet();
+    }
+
+    public long getId() {
         return id;
     }
-}
\ No newline at end of file
+
+    static long idOf(Node node) {
+        return node == null ? NO_ID : node.id;
+    }
+}
@@ -0,0 +1,35 @@
+// NodeCursor.java - ListCursor over a chain of Node objects
+package src;
+
+class NodeCursor implements ListCursor {
+    private Node upcoming;
+    private Node current;
+    private int remaining;
+
+    // Bounded by count rather than a null link so it also works on circular chains
+    NodeCursor(Node first, int count) {
+        this.upcoming = first;
+        this.remaining = count;
+    }
+
+    @Override
+    public boolean next() {
+        if (remaining == 0)
+            return false;
+        current = upcoming;
+        upcoming = current.next;
+        HopCounter.hop();
+        remaining--;
+        return true;
+    }
+
+    @Override
+    public int data() {
+        return current.data;
+    }
+
+    @Override
+    public long id() {
+        return current.id;
+    }
+}
@@ -0,0 +1,540 @@
+// OffHeapLinkedList.java - Off-heap list engine
+package src;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+import java.util.function.IntPredicate;
+
+/**
+ * Doubly linked list whose node records live outside the Java heap. Each
+ * record is four ints (value, next, prev, id) packed into fixed-size direct
+ * buffer pages; links are record indices, so the collector never sees the
+ * nodes no matter how long the list gets. clear() frees the pages at once
+ * and throws if the JVM will not let it. search() and getNodes() hand out
+ * detached Node views.
+ *
+ * Pages are direct buffers, so the list is capped by -XX:MaxDirectMemorySize,
+ * which defaults to the -Xmx heap size. Lists larger than the heap need the
+ * flag raised, e.g. {@code java -XX:MaxDirectMemorySize=8g -cp out src.Main}
+ * for up to about 500 million records.
+ */
+public class OffHeapLinkedList implements ListEngine {
+    private static final int NIL = -1;
+    private static final int RECORD_BYTES = 16;
+    private static final int DATA = 0;
+    private static final int NEXT = 4;
+    private static final int PREV = 8;
+    private static final int ID = 12;
+    private static final int PAGE_SHIFT = 16; // 65536 records, 1 MiB per page
+    private static final int PAGE_RECORDS = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_RECORDS - 1;
+
+    private ByteBuffer[] pages = new ByteBuffer[0];
+    private int head = NIL;
+    private int tail = NIL;
+    private int size;
+    private int used; // records below this index have been handed out at least once
+    private int freeHead = NIL;
+    private int idSequence;
+
+    private final ListChangeBus bus = new ListChangeBus();
+
+    public void addChangeListener(ListChangeListener listener) {
+        bus.addListener(listener);
+    }
+
+    public void removeChangeListener(ListChangeListener listener) {
+        bus.removeListener(listener);
+    }
+
+    public ListChangeBus changeBus() {
+        return bus;
+    }
+
+    private void notifyInserted(ListChangeEvent.Op op, int rec, int position, int count, int last) {
+        if (bus.hasListeners()) {
+            bus.publish(new ListChangeEvent(bus.nextSequence(), op, id(rec), data(rec), position,
+                    idAt(prev(rec)), idAt(next(last)), count));
+        }
+    }
+
+    // Captures the node before unlink() recycles its record, then publishes once it is gone
+    private void removeRecord(ListChangeEvent.Op op, int rec, int position) {
+        ListChangeEvent event = bus.hasListeners()
+                ? new ListChangeEvent(bus.nextSequence(), op, id(rec), data(rec), position, idAt(prev(rec)),
+                        idAt(next(rec)), 1)
+                : null;
+        unlink(rec);
+        if (event != null) {
+            bus.publish(event);
+        }
+    }
+
+    private void notifyChanged(ListChangeEvent.Op op, int count) {
+        if (bus.hasListeners()) {
+            bus.publish(ListChangeEvent.of(bus.nextSequence(), op, count));
+        }
+    }
+
+    private long idAt(int rec) {
+        return rec == NIL ? Node.NO_ID : id(rec);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public ListCursor cursor() {
+        return new ListCursor() {
+            private int upcoming = head;
+            private int current = NIL;
+
+            @Override
+            public boolean next() {
+                if (upcoming == NIL)
+                    return false;
+                current = upcoming;
+                upcoming = OffHeapLinkedList.this.next(current);
+                HopCounter.hop();
+                return true;
+            }
+
+            @Override
+            public int data() {
+                return OffHeapLinkedList.this.data(current);
+            }
+
+            @Override
+            public long id() {
+                return OffHeapLinkedList.this.id(current);
+            }
+        };
+    }
+
+    public boolean hasPrevLinks() {
+        return true;
+    }
+
+    // Walks to the window from whichever end is closer and builds detached views
+    public List<Node> getNodes(int from, int count) {
+        from = Math.max(0, from);
+        count = Math.max(0, Math.min(count, size - from));
+        List<Node> list = new ArrayList<>(count);
+        int rec = count == 0 ? NIL : recordAt(from);
+        Node previous = null;
+        for (int i = 0; i < count; i++) {
+            Node view = new Node(data(rec), id(rec));
+            if (previous != null) {
+                previous.next = view;
+                view.prev = previous;
+            }
+            list.add(view);
+            previous = view;
+            rec = next(rec);
+            HopCounter.hop();
+        }
+        return list;
+    }
+
+    public long offHeapBytes() {
+        return (long) pages.length * PAGE_RECORDS * RECORD_BYTES;
+    }
+
+    public void insertStart(int value) {
+        int rec = allocate(value);
+        setNext(rec, head);
+        setPrev(rec, NIL);
+        if (head != NIL) {
+            setPrev(head, rec);
+        } else {
+            tail = rec;
+        }
+        head = rec;
+        size++;
+        notifyInserted(ListChangeEvent.Op.INSERT_START, rec, 0, 1, rec);
+    }
+
+    public void insertEnd(int value) {
+        int rec = allocate(value);
+        linkAfter(tail, rec);
+        notifyInserted(ListChangeEvent.Op.INSERT_END, rec, size - 1, 1, rec);
+    }
+
+    public void insertAt(int value, int position) {
+        if (position == 0) {
+            insertStart(value);
+            return;
+        }
+        if (position > size || head == NIL) {
+            insertEnd(value);
+            return;
+        }
+
+        // a negative position inserts right after the head
+        int before;
+        if (position < 0) {
+            before = head;
+            position = 1;
+        } else {
+            before = recordAt(position - 1);
+        }
+        int rec = allocate(value);
+        linkAfter(before, rec);
+        notifyInserted(ListChangeEvent.Op.INSERT_AT, rec, position, 1, rec);
+    }
+
+    public void deleteValue(int value) {
+        int rec = head;
+        int position = 0;
+        HopCounter.compare();
+        while (rec != NIL && data(rec) != value) {
+            rec = next(rec);
+            position++;
+            HopCounter.hop();
+            HopCounter.compare();
+        }
+
+        if (rec != NIL) {
+            removeRecord(ListChangeEvent.Op.DELETE_VALUE, rec, position);
+        }
+    }
+
+    public void deleteAt(int position) {
+        if (position < 0 || position >= size)
+            return;
+
+        int rec = recordAt(position);
+        removeRecord(ListChangeEvent.Op.DELETE_AT, rec, position);
+    }
+
+    public void reverse() {
+        int rec = head;
+        while (rec != NIL) {
+            int following = next(rec);
+            setNext(rec, prev(rec));
+            setPrev(rec, following);
+            rec = following;
+            HopCounter.hop();
+        }
+
+        int oldHead = head;
+        head = tail;
+        tail = oldHead;
+        notifyChanged(ListChangeEvent.Op.REVERSE, size);
+    }
+
+    public void insertAll(int[] values) {
+        insertAllAt(size, values);
+    }
+
+    /**
+     * Links values in as one block whose first element lands at position
+     * (clamped to the list bounds), then fires a single BULK_INSERT event.
+     */
+    public void insertAllAt(int position, int[] values) {
+        if (values.length == 0)
+            return;
+        position = Math.max(0, Math.min(position, size));
+
+        int first = allocate(values[0]);
+        int last = first;
+        setPrev(first, NIL);
+        for (int i = 1; i < values.length; i++) {
+            int rec = allocate(values[i]);
+            setPrev(rec, last);
+            setNext(last, rec);
+            last = rec;
+        }
+
+        if (head == NIL) {
+            setNext(last, NIL);
+            head = first;
+            tail = last;
+        } else if (position <= 0) {
+            setNext(last, head);
+            setPrev(head, last);
+            head = first;
+        } else if (position >= size) {
+            setNext(last, NIL);
+            setNext(tail, first);
+            setPrev(first, tail);
+            tail = last;
+        } else {
+            int before = recordAt(position - 1);
+            int after = next(before);
+            setNext(last, after);
+            setPrev(after, last);
+            setPrev(first, before);
+            setNext(before, first);
+        }
+        size += values.length;
+        notifyInserted(ListChangeEvent.Op.BULK_INSERT, first, position, values.length, last);
+    }
+
+    /** Removes every node whose value matches in one pass; fires one BULK_REMOVE event. */
+    public int removeIf(IntPredicate filter) {
+        int kept = NIL; // last surviving record so far
+        int removed = 0;
+        int rec = head;
+        while (rec != NIL) {
+            int following = next(rec);
+            HopCounter.hop();
+            HopCounter.compare();
+            if (filter.test(data(rec))) {
+                release(rec);
+                removed++;
+            } else {
+                setPrev(rec, kept);
+                if (kept == NIL) {
+                    head = rec;
+                } else {
+                    setNext(kept, rec);
+                }
+                kept = rec;
+            }
+            rec = following;
+        }
+
+        if (removed == 0)
+            return 0;
+        if (kept == NIL) {
+            head = NIL;
+        } else {
+            setNext(kept, NIL);
+        }
+        tail = kept;
+        size -= removed;
+        notifyChanged(ListChangeEvent.Op.BULK_REMOVE, removed);
+        return removed;
+    }
+
+    /** Keeps only positions from (inclusive) to to (exclusive); fires one BULK_REMOVE event. */
+    public int retainRange(int from, int to) {
+        from = Math.max(0, from);
+        to = Math.min(size, to);
+        int kept = Math.max(0, to - from);
+        int removed = size - kept;
+        if (removed == 0)
+            return 0;
+
+        int first = kept == 0 ? NIL : recordAt(from);
+        int last = first;
+        for (int i = 1; i < kept; i++) {
+            last = next(last);
+            HopCounter.hop();
+        }
+        releaseRange(head, first);
+        releaseRange(last == NIL ? NIL : next(last), NIL);
+        if (first != NIL) {
+            setPrev(first, NIL);
+            setNext(last, NIL);
+        }
+        head = first;
+        tail = last;
+        size = kept;
+        notifyChanged(ListChangeEvent.Op.BULK_REMOVE, removed);
+        return removed;
+    }
+
+    public Node search(int value) {
+        for (int rec = head; rec != NIL; rec = next(rec)) {
+            HopCounter.compare();
+            if (data(rec) == value)
+                return new Node(value, id(rec));
+            HopCounter.hop();
+        }
+        return null;
+    }
+
+    /** Drops every node and hands the native pages back to the OS immediately. */
+    public void clear() {
+        int removed = size;
+        ByteBuffer[] dropped = pages;
+        pages = new ByteBuffer[0];
+        head = NIL;
+        tail = NIL;
+        size = 0;
+        used = 0;
+        freeHead = NIL;
+        notifyChanged(ListChangeEvent.Op.CLEAR, removed);
+        for (ByteBuffer page : dropped) {
+            freePage(page);
+        }
+    }
+
+    private int data(int rec) {
+        return pages[rec >>> PAGE_SHIFT].getInt(((rec & PAGE_MASK) * RECORD_BYTES) + DATA);
+    }
+
+    private int next(int rec) {
+        return pages[rec >>> PAGE_SHIFT].getInt(((rec & PAGE_MASK) * RECORD_BYTES) + NEXT);
+    }
+
+    private int prev(int rec) {
+        return pages[rec >>> PAGE_SHIFT].getInt(((rec & PAGE_MASK) * RECORD_BYTES) + PREV);
+    }
+
+    private int id(int rec) {
+        return pages[rec >>> PAGE_SHIFT].getInt(((rec & PAGE_MASK) * RECORD_BYTES) + ID);
+    }
+
+    private void setNext(int rec, int value) {
+        pages[rec >>> PAGE_SHIFT].putInt(((rec & PAGE_MASK) * RECORD_BYTES) + NEXT, value);
+    }
+
+    private void setPrev(int rec, int value) {
+        pages[rec >>> PAGE_SHIFT].putInt(((rec & PAGE_MASK) * RECORD_BYTES) + PREV, value);
+    }
+
+    private int allocate(int value) {
+        int rec;
+        if (freeHead != NIL) {
+            rec = freeHead;
+            freeHead = next(rec);
+        } else {
+            if (used == pages.length * PAGE_RECORDS) {
+                addPage();
+            }
+            rec = used++;
+        }
+        ByteBuffer page = pages[rec >>> PAGE_SHIFT];
+        int offset = (rec & PAGE_MASK) * RECORD_BYTES;
+        page.putInt(offset + DATA, value);
+        page.putInt(offset + ID, nextId());
+        return rec;
+    }
+
+    // Ids wrap after 2^32 records; skip NO_ID, which stands for "no node"
+    private int nextId() {
+        if (++idSequence == Node.NO_ID) {
+            ++idSequence;
+        }
+        return idSequence;
+    }
+
+    private void addPage() {
+        // Existing pages never move, so growing costs one allocation and no copying
+        ByteBuffer page;
+        try {
+            page = ByteBuffer.allocateDirect(PAGE_RECORDS * RECORD_BYTES).order(ByteOrder.nativeOrder());
+        } catch (OutOfMemoryError e) {
+            OutOfMemoryError full = new OutOfMemoryError("off-heap list is full at " + offHeapBytes()
+                    + " bytes; raise -XX:MaxDirectMemorySize (defaults to -Xmx)");
+            full.initCause(e);
+            throw full;
+        }
+        pages = Arrays.copyOf(pages, pages.length + 1);
+        pages[pages.length - 1] = page;
+    }
+
+    // Links rec after the given record, or into an empty list when before is NIL.
+    private void linkAfter(int before, int rec) {
+        setPrev(rec, before);
+        if (before == NIL) {
+            setNext(rec, NIL);
+            head = rec;
+            tail = rec;
+        } else {
+            int after = next(before);
+            setNext(rec, after);
+            if (after != NIL) {
+                setPrev(after, rec);
+            } else {
+                tail = rec;
+            }
+            setNext(before, rec);
+        }
+        size++;
+    }
+
+    private void unlink(int rec) {
+        int before = prev(rec);
+        int after = next(rec);
+        if (before != NIL) {
+            setNext(before, after);
+        } else {
+            head = after;
+        }
+        if (after != NIL) {
+            setPrev(after, before);
+        } else {
+            tail = before;
+        }
+        size--;
+        release(rec);
+    }
+
+    private void release(int rec) {
+        setNext(rec, freeHead);
+        freeHead = rec;
+    }
+
+    // Frees the records from start up to, but not including, end
+    private void releaseRange(int start, int end) {
+        int rec = start;
+        while (rec != end) {
+            int following = next(rec);
+            release(rec);
+            rec = following;
+            HopCounter.hop();
+        }
+    }
+
+    // Walks from whichever end is closer to the requested position.
+    private int recordAt(int index) {
+        int rec;
+        if (index < size / 2) {
+            rec = head;
+            for (int i = 0; i < index; i++) {
+                rec = next(rec);
+                HopCounter.hop();
+            }
+        } else {
+            rec = tail;
+            for (int i = size - 1; i > index; i--) {
+                rec = prev(rec);
+                HopCounter.hop();
+            }
+        }
+        return rec;
+    }
+
+    // Direct buffers are otherwise only freed once the collector finds them
+    // unreachable; sun.misc.Unsafe.invokeCleaner frees the memory right away.
+    // jdk.unsupported opens sun.misc, so the lookup only fails on a runtime
+    // built without that module, and then clear() says so.
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+    private static final Exception CLEANER_PROBLEM;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        Exception problem = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            problem = e;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+        CLEANER_PROBLEM = problem;
+    }
+
+    private static void freePage(ByteBuffer page) {
+        if (INVOKE_CLEANER == null)
+            throw new IllegalStateException("cannot free off-heap pages without jdk.unsupported", CLEANER_PROBLEM);
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, page);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("could not free an off-heap page", e);
+        }
+    }
+}
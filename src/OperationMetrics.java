@@ -0,0 +1,122 @@
+// OperationMetrics.java - Always-on latency and allocation recording for list operations
+package src;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times every list operation and repaint the VisualizerPanel performs and
+ * counts the bytes the calling thread allocated meanwhile. Recording is
+ * lock-free (LatencyHistogram.Recorder and LongAdder), so any thread may
+ * report and readers never stall the EDT. The figures are published as an
+ * MXBean and shown in Main's stats panel.
+ */
+final class OperationMetrics implements OperationMetricsMXBean {
+    static final String OBJECT_NAME = "src:type=OperationMetrics";
+
+    enum Operation {
+        INSERT_START, INSERT_END, INSERT_AT, DELETE_VALUE, DELETE_AT, REVERSE, SEARCH, CLEAR, INSERT_ALL, REPAINT
+    }
+
+    // null when the JVM cannot count per-thread allocation; bytes then read as 0
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocationCounter();
+
+    private final LatencyHistogram.Recorder[] latencies = new LatencyHistogram.Recorder[Operation.values().length];
+    private final LongAdder[] allocated = new LongAdder[Operation.values().length];
+
+    OperationMetrics() {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram.Recorder();
+            allocated[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one operation that took nanos, started when allocatedBytes()
+     * read startBytes. Callers time with System.nanoTime() around the work
+     * itself, so nothing is allocated to measure it.
+     */
+    void record(Operation operation, long nanos, long startBytes) {
+        latencies[operation.ordinal()].record(nanos);
+        allocated[operation.ordinal()].add(allocatedBytes() - startBytes);
+    }
+
+    LatencyHistogram latency(Operation operation) {
+        return latencies[operation.ordinal()].snapshot();
+    }
+
+    long allocatedBytes(Operation operation) {
+        return allocated[operation.ordinal()].sum();
+    }
+
+    @Override
+    public List<Stats> getOperations() {
+        List<Stats> rows = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            rows.add(new Stats(operation.name(), latency(operation), allocatedBytes(operation)));
+        }
+        return rows;
+    }
+
+    @Override
+    public long getOperationCount() {
+        long count = 0;
+        for (Operation operation : Operation.values()) {
+            if (operation != Operation.REPAINT) {
+                count += latency(operation).count();
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        long bytes = 0;
+        for (LongAdder adder : allocated) {
+            bytes += adder.sum();
+        }
+        return bytes;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i].reset();
+            allocated[i].reset();
+        }
+    }
+
+    /**
+     * Publishes these metrics on the platform MBean server, replacing any
+     * registered before. Throws whatever JMX refused the registration with.
+     */
+    void register() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+        server.registerMBean(this, name);
+    }
+
+    /** Bytes the calling thread has allocated so far, or 0 if the JVM cannot tell. */
+    static long allocatedBytes() {
+        return ALLOCATIONS != null ? ALLOCATIONS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    /** The JVM's per-thread allocation counter, switched on, or null if it has none. */
+    static com.sun.management.ThreadMXBean allocationCounter() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean))
+            return null;
+        com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+        if (!counter.isThreadAllocatedMemorySupported())
+            return null;
+        counter.setThreadAllocatedMemoryEnabled(true);
+        return counter;
+    }
+}
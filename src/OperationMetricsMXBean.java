@@ -0,0 +1,80 @@
+// OperationMetricsMXBean.java - JMX view of list operation and repaint latencies
+package src;
+
+import java.util.List;
+
+/**
+ * Published on the platform MBean server as {@value OperationMetrics#OBJECT_NAME},
+ * so JConsole, VisualVM or any JMX client can watch the running
+ * visualizer. Each operation appears as one composite row.
+ *
+ * Only work done through VisualizerPanel is recorded: the buttons, script
+ * playback and its prefill, which is one INSERT_ALL. removeIf and
+ * retainRange have no panel path, so they are never timed; headless tools
+ * such as WorkloadRunner and RenderBenchmark keep their own figures.
+ */
+public interface OperationMetricsMXBean {
+    /** One row per list operation, plus REPAINT for the canvas. */
+    List<Stats> getOperations();
+
+    /** List operations since start or the last reset, not counting repaints; a bulk insert counts once. */
+    long getOperationCount();
+
+    /** Bytes allocated by list operations and repaints since start or the last reset. */
+    long getAllocatedBytes();
+
+    void reset();
+
+    /** Latency summary of one operation; times in microseconds. */
+    final class Stats {
+        private final String name;
+        private final long count;
+        private final double p50Micros;
+        private final double p99Micros;
+        private final double maxMicros;
+        private final double meanMicros;
+        private final long allocatedBytes;
+
+        Stats(String name, LatencyHistogram latency, long allocatedBytes) {
+            this.name = name;
+            this.count = latency.count();
+            this.p50Micros = latency.percentile(50) / 1e3;
+            this.p99Micros = latency.percentile(99) / 1e3;
+            this.maxMicros = latency.max() / 1e3;
+            this.meanMicros = latency.mean() / 1e3;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getP50Micros() {
+            return p50Micros;
+        }
+
+        public double getP99Micros() {
+            return p99Micros;
+        }
+
+        public double getMaxMicros() {
+            return maxMicros;
+        }
+
+        public double getMeanMicros() {
+            return meanMicros;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public long getBytesPerOperation() {
+            return count == 0 ? 0 : allocatedBytes / count;
+        }
+    }
+}
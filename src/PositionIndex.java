@@ -0,0 +1,196 @@
+// PositionIndex.java - Indexable skip lanes over a node chain
+package src;
+
+/**
+ * Skip-list style express lanes laid over an existing Node chain so that the
+ * node at a position can be found in expected O(log n) hops. Each lane entry
+ * points at a chain node and records the width (number of chain hops) to the
+ * next entry in its lane; the chain itself is never modified, and the bottom
+ * of a lookup finishes with a few Node.next steps.
+ *
+ * The owning list reports every insert and removal by position. Changes
+ * whose position it does not know (reverse, indexed deleteValue) mark the
+ * index stale, and it is rebuilt from the chain on the next lookup.
+ */
+class PositionIndex {
+    private static final int MAX_LEVEL = 24; // promotion odds are 1/4 per level
+
+    private static final class Lane {
+        final Node node; // null for the head sentinel of a level, at position -1
+        Lane next;
+        Lane down;
+        int width;
+
+        Lane(Node node) {
+            this.node = node;
+        }
+    }
+
+    private final Lane[] heads = new Lane[MAX_LEVEL];
+    private int levels;
+    private boolean stale = true;
+    private long seed = System.nanoTime() | 1;
+
+    // Scratch space for the lane entries preceding a position, per level
+    private final Lane[] update = new Lane[MAX_LEVEL];
+    private final int[] updatePos = new int[MAX_LEVEL];
+
+    boolean isStale() {
+        return stale;
+    }
+
+    void invalidate() {
+        stale = true;
+    }
+
+    void clear() {
+        for (int l = 0; l < levels; l++) {
+            heads[l] = null;
+        }
+        levels = 0;
+        stale = false;
+    }
+
+    /** Rebuilds the lanes from the first size nodes of the chain in O(size). */
+    void rebuild(Node first, int size) {
+        clear();
+        Node node = first;
+        for (int position = 0; position < size; position++) {
+            int height = randomHeight();
+            ensureLevels(height);
+            Lane below = null;
+            for (int l = 0; l < height; l++) {
+                Lane lane = new Lane(node);
+                lane.down = below;
+                update[l].width = position - updatePos[l];
+                update[l].next = lane;
+                update[l] = lane;
+                updatePos[l] = position;
+                below = lane;
+            }
+            node = node.next;
+        }
+    }
+
+    /** Returns the node at position, descending the lanes before walking the chain. */
+    Node nodeAt(Node first, int position) {
+        int currentPos = -1;
+        Lane lane = levels > 0 ? heads[levels - 1] : null;
+        while (lane != null) {
+            while (lane.next != null && currentPos + lane.width <= position) {
+                currentPos += lane.width;
+                lane = lane.next;
+                HopCounter.hop();
+            }
+            if (lane.down == null)
+                break;
+            lane = lane.down;
+            HopCounter.hop();
+        }
+
+        Node node;
+        if (lane == null || lane.node == null) {
+            node = first;
+            currentPos = 0;
+        } else {
+            node = lane.node;
+        }
+        while (currentPos < position) {
+            node = node.next;
+            currentPos++;
+            HopCounter.hop();
+        }
+        return node;
+    }
+
+    /** Records that node was linked in at position, shifting later nodes up by one. */
+    void inserted(int position, Node node) {
+        if (stale)
+            return;
+        int height = randomHeight();
+        ensureLevels(height);
+        findPredecessors(position);
+
+        Lane below = null;
+        for (int l = 0; l < levels; l++) {
+            Lane before = update[l];
+            if (l < height) {
+                Lane lane = new Lane(node);
+                lane.down = below;
+                lane.next = before.next;
+                if (before.next != null) {
+                    lane.width = updatePos[l] + before.width + 1 - position;
+                }
+                before.width = position - updatePos[l];
+                before.next = lane;
+                below = lane;
+            } else if (before.next != null) {
+                before.width++;
+            }
+        }
+    }
+
+    /** Records that the node at position was unlinked, shifting later nodes down by one. */
+    void removed(int position) {
+        if (stale)
+            return;
+        findPredecessors(position);
+
+        for (int l = 0; l < levels; l++) {
+            Lane before = update[l];
+            if (before.next == null)
+                continue;
+            if (updatePos[l] + before.width == position) {
+                Lane victim = before.next;
+                before.next = victim.next;
+                if (victim.next != null) {
+                    before.width += victim.width - 1;
+                }
+            } else {
+                before.width--;
+            }
+        }
+        while (levels > 0 && heads[levels - 1].next == null) {
+            heads[--levels] = null;
+        }
+    }
+
+    // Fills update/updatePos with the last lane entry before position on each level
+    private void findPredecessors(int position) {
+        if (levels == 0)
+            return;
+        int currentPos = -1;
+        Lane lane = heads[levels - 1];
+        for (int l = levels - 1; l >= 0; l--) {
+            while (lane.next != null && currentPos + lane.width < position) {
+                currentPos += lane.width;
+                lane = lane.next;
+                HopCounter.hop();
+            }
+            update[l] = lane;
+            updatePos[l] = currentPos;
+            lane = lane.down;
+            HopCounter.hop();
+        }
+    }
+
+    // Adds empty sentinel levels up to height, leaving update[] at the sentinels
+    private void ensureLevels(int height) {
+        while (levels < height) {
+            Lane head = new Lane(null);
+            head.down = levels > 0 ? heads[levels - 1] : null;
+            heads[levels] = head;
+            update[levels] = head;
+            updatePos[levels] = -1;
+            levels++;
+        }
+    }
+
+    private int randomHeight() {
+        // xorshift64; every two trailing zero bits promote one level higher
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return Math.min(Long.numberOfTrailingZeros(seed) / 2, MAX_LEVEL);
+    }
+}
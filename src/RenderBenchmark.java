@@ -0,0 +1,209 @@
+// RenderBenchmark.java - Headless frame-time and allocation benchmark of VisualizerPanel
+package src;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Paints VisualizerPanel into an off-screen image the way the scroll pane
+ * would: a viewport-sized window at the middle of the list, at the zoom
+ * the panel picks for that length. For every list type, size and theme it
+ * records each frame's paintComponent time and the bytes the EDT allocated
+ * during it, after the load animations have finished and a warm-up.
+ * Results go to stdout as a table and to a JSON file for comparing runs.
+ *
+ * Usage: {@code java -Djava.awt.headless=true src.RenderBenchmark [--sizes=10,1000] [--modes=Singly,Array]
+ * [--frames=500] [--warmup=200] [--width=1400] [--out=render-bench.json]}
+ */
+final class RenderBenchmark {
+    private static final int[] DEFAULT_SIZES = { 10, 100, 1000, 10_000, 100_000, 1_000_000 };
+    private static final String[] DEFAULT_MODES = { "Singly", "Doubly", "Circular", "Array", "Off-Heap",
+            "Concurrent" };
+
+    private RenderBenchmark() {
+    }
+
+    /** Frame statistics for one list type, size and theme. */
+    static final class Result {
+        final String mode;
+        final int size;
+        final boolean dark;
+        final ListRenderer.Detail detail;
+        final LatencyHistogram frameNanos;
+        final long bytesPerFrame; // -1 if the JVM cannot count allocations
+
+        Result(String mode, int size, boolean dark, ListRenderer.Detail detail, LatencyHistogram frameNanos,
+                long bytesPerFrame) {
+            this.mode = mode;
+            this.size = size;
+            this.dark = dark;
+            this.detail = detail;
+            this.frameNanos = frameNanos;
+            this.bytesPerFrame = bytesPerFrame;
+        }
+    }
+
+    /** Runs every combination; panel work happens on the EDT, as in the application. */
+    static List<Result> run(String[] modes, int[] sizes, int warmup, int frames, int width) throws Exception {
+        VisualizerPanel panel = new VisualizerPanel();
+        JScrollPane scrollPane = new JScrollPane(panel, ScrollPaneConstants.VERTICAL_SCROLLBAR_NEVER,
+                ScrollPaneConstants.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+        List<Result> results = new ArrayList<>();
+        for (String mode : modes) {
+            for (int size : sizes) {
+                int[] values = new int[size];
+                for (int i = 0; i < size; i++) {
+                    values[i] = i % 1000;
+                }
+                SwingUtilities.invokeAndWait(() -> {
+                    scrollPane.setSize(width, ListRenderer.CANVAS_HEIGHT + 20);
+                    layOut(scrollPane);
+                    panel.setMode(mode);
+                    panel.getList().insertAll(values);
+                });
+                // Let the change batch arrive, then wait out its animations
+                SwingUtilities.invokeAndWait(() -> {
+                    layOut(scrollPane);
+                    panel.scrollToFraction(0.5);
+                    layOut(scrollPane);
+                });
+                while (isAnimating(panel)) {
+                    Thread.sleep(20);
+                }
+                for (boolean dark : new boolean[] { true, false }) {
+                    Result[] result = new Result[1];
+                    SwingUtilities.invokeAndWait(() -> {
+                        panel.setDarkMode(dark);
+                        result[0] = measure(panel, scrollPane.getViewport().getViewRect(), mode, size, dark,
+                                warmup, frames);
+                    });
+                    results.add(result[0]);
+                }
+            }
+        }
+        return results;
+    }
+
+    private static Result measure(VisualizerPanel panel, Rectangle view, String mode, int size, boolean dark,
+            int warmup, int frames) {
+        BufferedImage image = new BufferedImage(view.width, view.height, BufferedImage.TYPE_INT_RGB);
+        com.sun.management.ThreadMXBean threads = OperationMetrics.allocationCounter();
+        long thread = Thread.currentThread().getId();
+        LatencyHistogram frameNanos = new LatencyHistogram();
+        long allocated = 0;
+        for (int frame = -warmup; frame < frames; frame++) {
+            Graphics2D g = image.createGraphics();
+            g.translate(-view.x, -view.y);
+            g.clipRect(view.x, view.y, view.width, view.height);
+            long bytesBefore = threads != null ? threads.getThreadAllocatedBytes(thread) : 0;
+            long start = System.nanoTime();
+            panel.paintComponent(g);
+            long elapsed = System.nanoTime() - start;
+            long bytesAfter = threads != null ? threads.getThreadAllocatedBytes(thread) : 0;
+            g.dispose();
+            if (frame >= 0) {
+                frameNanos.record(elapsed);
+                allocated += bytesAfter - bytesBefore;
+            }
+        }
+        long bytesPerFrame = threads != null && frames > 0 ? allocated / frames : -1;
+        return new Result(mode, size, dark, panel.getDetail(), frameNanos, bytesPerFrame);
+    }
+
+    private static boolean isAnimating(VisualizerPanel panel) throws Exception {
+        boolean[] animating = new boolean[1];
+        SwingUtilities.invokeAndWait(() -> animating[0] = panel.isAnimating());
+        return animating[0];
+    }
+
+    // Without a window nothing lays the scroll pane out, so do it by hand
+    private static void layOut(JScrollPane scrollPane) {
+        scrollPane.doLayout();
+        scrollPane.getViewport().doLayout();
+    }
+
+    static String toTable(List<Result> results) {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%-11s %9s %-6s %-8s %9s %9s %9s %9s %11s%n", "list", "size", "theme", "detail",
+                "p50 (us)", "p90", "p99", "max", "bytes/frame"));
+        for (Result result : results) {
+            LatencyHistogram frames = result.frameNanos;
+            text.append(String.format("%-11s %,9d %-6s %-8s %9.1f %9.1f %9.1f %9.1f %,11d%n", result.mode,
+                    result.size, result.dark ? "dark" : "light", result.detail, frames.percentile(50) / 1e3,
+                    frames.percentile(90) / 1e3, frames.percentile(99) / 1e3, frames.max() / 1e3,
+                    result.bytesPerFrame));
+        }
+        return text.toString();
+    }
+
+    /**
+     * One object per run; frame times in nanoseconds, with percentiles as
+     * histogram bucket upper bounds (within about 6%).
+     */
+    static void writeJson(List<Result> results, int width, int warmup, int frames, Path out) throws IOException {
+        try (Writer json = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            json.write("{\n");
+            json.write(String.format(Locale.ROOT, "  \"java\": \"%s\",%n", System.getProperty("java.version")));
+            json.write(String.format(Locale.ROOT, "  \"os\": \"%s %s\",%n", System.getProperty("os.name"),
+                    System.getProperty("os.arch")));
+            json.write(String.format(Locale.ROOT, "  \"viewportWidth\": %d,%n", width));
+            json.write(String.format(Locale.ROOT, "  \"warmupFrames\": %d,%n", warmup));
+            json.write(String.format(Locale.ROOT, "  \"frames\": %d,%n", frames));
+            json.write("  \"results\": [\n");
+            for (int i = 0; i < results.size(); i++) {
+                Result result = results.get(i);
+                LatencyHistogram frameNanos = result.frameNanos;
+                json.write(String.format(Locale.ROOT,
+                        "    {\"list\": \"%s\", \"size\": %d, \"theme\": \"%s\", \"detail\": \"%s\", "
+                                + "\"meanNanos\": %.0f, \"p50Nanos\": %d, \"p90Nanos\": %d, \"p99Nanos\": %d, "
+                                + "\"maxNanos\": %d, \"bytesPerFrame\": %d}%s%n",
+                        result.mode, result.size, result.dark ? "dark" : "light", result.detail,
+                        frameNanos.mean(), frameNanos.percentile(50), frameNanos.percentile(90),
+                        frameNanos.percentile(99), frameNanos.max(), result.bytesPerFrame,
+                        i + 1 < results.size() ? "," : ""));
+            }
+            json.write("  ]\n}\n");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] modes = DEFAULT_MODES;
+        int[] sizes = DEFAULT_SIZES;
+        int frames = 500;
+        int warmup = 200;
+        int width = 1400;
+        Path out = Paths.get("render-bench.json");
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String value = equals < 0 ? "" : arg.substring(equals + 1);
+            if (arg.startsWith("--sizes=")) {
+                sizes = Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray();
+            } else if (arg.startsWith("--modes=")) {
+                modes = value.split(",");
+            } else if (arg.startsWith("--frames=")) {
+                frames = Integer.parseInt(value);
+            } else if (arg.startsWith("--warmup=")) {
+                warmup = Integer.parseInt(value);
+            } else if (arg.startsWith("--width=")) {
+                width = Integer.parseInt(value);
+            } else if (arg.startsWith("--out=")) {
+                out = Paths.get(value);
+            } else {
+                System.err.println("Usage: RenderBenchmark [--sizes=10,1000] [--modes=Singly,Array] [--frames=N]"
+                        + " [--warmup=N] [--width=px] [--out=file.json]");
+                System.exit(2);
+            }
+        }
+        List<Result> results = run(modes, sizes, warmup, frames, width);
+        System.out.print(toTable(results));
+        writeJson(results, width, warmup, frames, out);
+        System.out.println("Results written to " + out);
+        System.exit(0); // the panel's animation timer would keep the JVM alive
+    }
+}
@@ -0,0 +1,418 @@
+// RenderModel.java - Event-maintained copy of the list for painting
+package src;
+
+import java.util.*;
+
+/**
+ * The painter's view of the active list, kept in step with it by applying
+ * change events rather than walking the chain every frame. Values and ids
+ * live in fixed-capacity chunks; publishing a snapshot freezes the current
+ * chunks, and later edits copy just the chunks they touch, so a Snapshot
+ * never changes once handed out. Reverse only flips a flag.
+ *
+ * Events that do not say where they happened (bulk edits, deletes found
+ * through the value index) make the model rebuild itself from the list
+ * instead, as does every batch from a list that other threads mutate.
+ */
+final class RenderModel {
+    private static final int CHUNK_SIZE = 1024;
+
+    private Chunk[] chunks = new Chunk[4];
+    private int[] starts = new int[4]; // physical position of each chunk's first entry
+    private int chunkCount;
+    private int size;
+    private boolean reversed;
+    private long version; // sequence of the last event reflected in the model
+    private int generation; // chunks from older generations are shared with snapshots
+
+    private volatile Snapshot published = Snapshot.EMPTY;
+
+    /** The latest published state; safe to read from any thread. */
+    Snapshot snapshot() {
+        return published;
+    }
+
+    /**
+     * Applies a batch of events from the list's bus and publishes the result.
+     * Events already covered by an earlier rebuild are skipped.
+     */
+    void apply(List<ListChangeEvent> events, ListEngine list) {
+        if (list.isConcurrent()) {
+            // Events from other threads arrive in no useful order; re-read instead
+            if (events.get(events.size() - 1).getSequence() > version) {
+                rebuild(list);
+            }
+            return;
+        }
+        boolean changed = false;
+        boolean stale = false;
+        for (ListChangeEvent event : events) {
+            if (event.getSequence() <= version)
+                continue;
+            if (!applyOne(event)) {
+                stale = true;
+                break;
+            }
+            version = event.getSequence();
+            changed = true;
+        }
+        // Only trust the model once it has caught up with the list
+        if (stale || list.read(engine -> version == engine.changeBus().lastSequence() && size != engine.size())) {
+            rebuild(list);
+        } else if (changed) {
+            publish();
+        }
+    }
+
+    /**
+     * Reloads everything from the list. Call on the thread that mutates it,
+     * unless the list guards its own reads (see ListEngine.read).
+     */
+    void rebuild(ListEngine list) {
+        list.read(engine -> {
+            load(engine);
+            return null;
+        });
+        publish();
+    }
+
+    // Safe to repeat: starts from scratch every time
+    private void load(ListEngine list) {
+        chunks = new Chunk[Math.max(4, list.size() / CHUNK_SIZE + 1)];
+        starts = new int[chunks.length];
+        chunkCount = 0;
+        size = 0;
+        reversed = false;
+        version = list.changeBus().lastSequence();
+
+        ListCursor cursor = list.cursor();
+        Chunk chunk = null;
+        while (cursor.next()) {
+            if (chunk == null || chunk.count == CHUNK_SIZE) {
+                chunk = new Chunk(generation);
+                addChunk(chunkCount, chunk, size);
+            }
+            chunk.values[chunk.count] = cursor.data();
+            chunk.ids[chunk.count] = cursor.id();
+            chunk.count++;
+            size++;
+        }
+    }
+
+    // Returns false when the event cannot be applied in place
+    private boolean applyOne(ListChangeEvent event) {
+        switch (event.op) {
+            case INSERT_START:
+            case INSERT_END:
+            case INSERT_AT:
+                if (event.position < 0 || event.position > size)
+                    return false;
+                insert(event.position, event.value, event.nodeId);
+                return true;
+            case DELETE_VALUE:
+            case DELETE_AT:
+                // A value-index delete has no position; finding one here would scan
+                if (event.position < 0 || event.position >= size)
+                    return false;
+                remove(event.position);
+                return true;
+            case REVERSE:
+                reversed = !reversed;
+                return true;
+            case CLEAR:
+                chunkCount = 0;
+                size = 0;
+                reversed = false;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void insert(int position, int value, long id) {
+        int physical = reversed ? size - position : position;
+        if (chunkCount == 0) {
+            addChunk(0, new Chunk(generation), 0);
+        }
+        int k = chunkOf(starts, chunkCount, Math.min(physical, size - 1));
+        if (physical == size) {
+            k = chunkCount - 1;
+        }
+        Chunk chunk = writable(k);
+        if (chunk.count == CHUNK_SIZE) {
+            // Split the full chunk in half and insert into whichever half covers the position
+            Chunk upper = new Chunk(generation);
+            int half = CHUNK_SIZE / 2;
+            System.arraycopy(chunk.values, half, upper.values, 0, half);
+            System.arraycopy(chunk.ids, half, upper.ids, 0, half);
+            upper.count = half;
+            chunk.count = half;
+            addChunk(k + 1, upper, starts[k] + half);
+            if (physical > starts[k + 1]) {
+                k++;
+                chunk = upper;
+            }
+        }
+
+        int offset = physical - starts[k];
+        System.arraycopy(chunk.values, offset, chunk.values, offset + 1, chunk.count - offset);
+        System.arraycopy(chunk.ids, offset, chunk.ids, offset + 1, chunk.count - offset);
+        chunk.values[offset] = value;
+        chunk.ids[offset] = id;
+        chunk.count++;
+        for (int j = k + 1; j < chunkCount; j++) {
+            starts[j]++;
+        }
+        size++;
+    }
+
+    private void remove(int position) {
+        int physical = reversed ? size - 1 - position : position;
+        int k = chunkOf(starts, chunkCount, physical);
+        Chunk chunk = writable(k);
+        int offset = physical - starts[k];
+        System.arraycopy(chunk.values, offset + 1, chunk.values, offset, chunk.count - offset - 1);
+        System.arraycopy(chunk.ids, offset + 1, chunk.ids, offset, chunk.count - offset - 1);
+        chunk.count--;
+        if (chunk.count == 0) {
+            System.arraycopy(chunks, k + 1, chunks, k, chunkCount - k - 1);
+            System.arraycopy(starts, k + 1, starts, k, chunkCount - k - 1);
+            chunkCount--;
+        } else {
+            k++;
+        }
+        for (int j = k; j < chunkCount; j++) {
+            starts[j]--;
+        }
+        size--;
+    }
+
+    private void addChunk(int k, Chunk chunk, int start) {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+            starts = Arrays.copyOf(starts, chunkCount * 2);
+        }
+        System.arraycopy(chunks, k, chunks, k + 1, chunkCount - k);
+        System.arraycopy(starts, k, starts, k + 1, chunkCount - k);
+        chunks[k] = chunk;
+        starts[k] = start;
+        chunkCount++;
+    }
+
+    // Copies a chunk that a published snapshot may still be reading
+    private Chunk writable(int k) {
+        Chunk chunk = chunks[k];
+        if (chunk.generation != generation) {
+            chunk = chunk.copy(generation);
+            chunks[k] = chunk;
+        }
+        return chunk;
+    }
+
+    private void publish() {
+        published = new Snapshot(Arrays.copyOf(chunks, chunkCount), Arrays.copyOf(starts, chunkCount),
+                size, reversed, version);
+        generation++;
+    }
+
+    // Index of the chunk holding a physical position
+    private static int chunkOf(int[] starts, int count, int physical) {
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (starts[mid] <= physical) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private static final class Chunk {
+        final int[] values = new int[CHUNK_SIZE];
+        final long[] ids = new long[CHUNK_SIZE];
+        final int generation;
+        int count;
+        private volatile Summary summary; // built on first use
+
+        Chunk(int generation) {
+            this.generation = generation;
+        }
+
+        Chunk copy(int newGeneration) {
+            Chunk copy = new Chunk(newGeneration);
+            System.arraycopy(values, 0, copy.values, 0, count);
+            System.arraycopy(ids, 0, copy.ids, 0, count);
+            copy.count = count;
+            return copy;
+        }
+
+        /** Statistics for Density; only valid once the chunk belongs to a snapshot and can no longer change. */
+        Summary summary() {
+            Summary result = summary;
+            if (result == null) {
+                result = new Summary(this);
+                summary = result;
+            }
+            return result;
+        }
+    }
+
+    // Bucket sums and extremes of one frozen chunk, shared by every snapshot that holds it
+    private static final class Summary {
+        final long[] sums; // per Density.BUCKET entries, in storage order
+        final long total;
+        final int lowest;
+        final int highest;
+
+        Summary(Chunk chunk) {
+            sums = new long[(chunk.count + Density.BUCKET - 1) / Density.BUCKET];
+            long total = 0;
+            int lowest = Integer.MAX_VALUE;
+            int highest = Integer.MIN_VALUE;
+            for (int i = 0; i < chunk.count; i++) {
+                int value = chunk.values[i];
+                sums[i / Density.BUCKET] += value;
+                total += value;
+                lowest = Math.min(lowest, value);
+                highest = Math.max(highest, value);
+            }
+            this.total = total;
+            this.lowest = lowest;
+            this.highest = highest;
+        }
+    }
+
+    /** Immutable, versioned view of the list at one point in its event stream. */
+    static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new Chunk[0], new int[0], 0, false, 0);
+
+        private final Chunk[] chunks;
+        private final int[] starts;
+        private final int size;
+        private final boolean reversed;
+        private final long version;
+        private volatile Density density; // built on first use
+
+        private Snapshot(Chunk[] chunks, int[] starts, int size, boolean reversed, long version) {
+            this.chunks = chunks;
+            this.starts = starts;
+            this.size = size;
+            this.reversed = reversed;
+            this.version = version;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /** Sequence number of the last change event this snapshot reflects. */
+        long version() {
+            return version;
+        }
+
+        int value(int position) {
+            int physical = reversed ? size - 1 - position : position;
+            int k = chunkOf(starts, chunks.length, physical);
+            return chunks[k].values[physical - starts[k]];
+        }
+
+        long id(int position) {
+            int physical = reversed ? size - 1 - position : position;
+            int k = chunkOf(starts, chunks.length, physical);
+            return chunks[k].ids[physical - starts[k]];
+        }
+
+        /** Bucketed value statistics for zoomed-out views, combined once per snapshot. */
+        Density density() {
+            Density result = density;
+            if (result == null) {
+                result = new Density(this);
+                density = result;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Sums of values over fixed buckets of positions, so a pixel column that
+     * stands for thousands of nodes can be summarized without reading them.
+     * Buckets are kept per chunk and shared like the chunks themselves, so
+     * after an edit only the copied chunks are summed again and the rest is
+     * one pass over the chunk summaries.
+     */
+    static final class Density {
+        static final int BUCKET = 64;
+
+        private final Snapshot snapshot;
+        private final Summary[] summaries;
+        private final int lowest;
+        private final int highest;
+
+        private Density(Snapshot snapshot) {
+            this.snapshot = snapshot;
+            summaries = new Summary[snapshot.chunks.length];
+            int lowest = Integer.MAX_VALUE;
+            int highest = Integer.MIN_VALUE;
+            for (int k = 0; k < summaries.length; k++) {
+                Summary summary = snapshot.chunks[k].summary();
+                summaries[k] = summary;
+                lowest = Math.min(lowest, summary.lowest);
+                highest = Math.max(highest, summary.highest);
+            }
+            this.lowest = snapshot.size == 0 ? 0 : lowest;
+            this.highest = snapshot.size == 0 ? 0 : highest;
+        }
+
+        int lowest() {
+            return lowest;
+        }
+
+        int highest() {
+            return highest;
+        }
+
+        /**
+         * Mean value of positions from (inclusive) to to (exclusive). Long
+         * ranges are rounded out to whole buckets; short ones are read exactly.
+         */
+        double mean(int from, int to) {
+            from = Math.max(0, from);
+            to = Math.min(snapshot.size, to);
+            if (from >= to)
+                return 0;
+            if (to - from < 4 * BUCKET) {
+                long sum = 0;
+                for (int i = from; i < to; i++) {
+                    sum += snapshot.value(i);
+                }
+                return (double) sum / (to - from);
+            }
+            // Chunks are stored unreversed, so mirror the range onto storage order
+            int low = snapshot.reversed ? snapshot.size - to : from;
+            int high = snapshot.reversed ? snapshot.size - from : to;
+            long sum = 0;
+            int count = 0;
+            for (int k = chunkOf(snapshot.starts, summaries.length, low); k < summaries.length
+                    && snapshot.starts[k] < high; k++) {
+                int start = snapshot.starts[k];
+                int length = snapshot.chunks[k].count;
+                int first = Math.max(low, start) - start;
+                int last = Math.min(high, start + length) - start - 1;
+                if (first == 0 && last == length - 1) {
+                    sum += summaries[k].total;
+                    count += length;
+                    continue;
+                }
+                // Partly covered chunks are rounded out to whole buckets
+                for (int b = first / BUCKET; b <= last / BUCKET; b++) {
+                    sum += summaries[k].sums[b];
+                }
+                count += Math.min(length, (last / BUCKET + 1) * BUCKET) - first / BUCKET * BUCKET;
+            }
+            return (double) sum / count;
+        }
+    }
+}
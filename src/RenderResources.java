@@ -0,0 +1,351 @@
+// RenderResources.java - Shared paint resources and pre-rendered node sprites
+package src;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * Fonts, strokes and colors shared by every frame, plus node box sprites
+ * and laid-out label glyphs that are built once and reused. A node is drawn
+ * as one sprite blit and a few cached glyph draws, so repainting an
+ * unchanged view allocates next to nothing. Only used from the EDT.
+ */
+final class RenderResources {
+    static final Font NODE_FONT = new Font("Arial", Font.BOLD, 12);
+    static final Font INDEX_FONT = new Font("Arial", Font.BOLD, 11);
+    static final Font LABEL_FONT = new Font("Arial", Font.BOLD, 14);
+    static final Font EMPTY_TITLE_FONT = new Font("Arial", Font.BOLD, 24);
+    static final Font EMPTY_SUBTITLE_FONT = new Font("Arial", Font.ITALIC, 16);
+
+    static final BasicStroke LINK_STROKE = new BasicStroke(2);
+    static final BasicStroke THIN_STROKE = new BasicStroke(1);
+
+    static final Color DARK_BACKGROUND = new Color(30, 30, 40);
+    static final Color LIGHT_BACKGROUND = new Color(240, 240, 250);
+    static final Color DARK_MESSAGE = new Color(200, 200, 220);
+    static final Color LIGHT_MESSAGE = new Color(80, 80, 100);
+    static final Color NODE_COLOR = new Color(65, 105, 225);
+    static final Color HIGHLIGHT_COLOR = new Color(255, 105, 180);
+    static final Color INDEX_COLOR = new Color(255, 200, 100);
+    static final Color CIRCULAR_COLOR = Color.GREEN;
+
+    // Density strip shades, from the node color (lowest) to the highlight color (highest)
+    static final int HEAT_SHADES = 256;
+    private static final Color[] HEAT = new Color[HEAT_SHADES];
+
+    static {
+        for (int i = 0; i < HEAT_SHADES; i++) {
+            float t = (float) i / (HEAT_SHADES - 1);
+            HEAT[i] = new Color(blend(NODE_COLOR.getRed(), HIGHLIGHT_COLOR.getRed(), t),
+                    blend(NODE_COLOR.getGreen(), HIGHLIGHT_COLOR.getGreen(), t),
+                    blend(NODE_COLOR.getBlue(), HIGHLIGHT_COLOR.getBlue(), t));
+        }
+    }
+
+    static final String DATA_LABEL = "Data: ";
+    static final String NEXT_LABEL = "Next: ";
+    static final String PREV_LABEL = "Prev: ";
+    static final String NULL_LABEL = "null";
+
+    private static final int ARC = 20;
+    private static final int PAD = 1; // half the border stroke sticks out of the box
+    private static final int ARROW_SIZE = 10;
+    private static final int CONNECTOR_PAD = 6; // covers the arrow head and stroke
+
+    private final int nodeWidth;
+    private final int nodeHeight;
+    private final int linkGap;
+    private final int textX;
+    private final int textY;
+
+    // Indexed by highlighted, prev links shown and dark mode
+    private final BufferedImage[] sprites = new BufferedImage[8];
+    // Link arrow between neighbouring boxes, indexed by dark mode
+    private final BufferedImage[] connectors = new BufferedImage[2];
+    private double spriteScale;
+
+    private final GlyphCache values = new GlyphCache("");
+    private final GlyphCache indexes = new GlyphCache("Node ");
+    private FontRenderContext glyphContext;
+    private GlyphVector nullGlyphs;
+    private float dataWidth;
+    private float nextWidth;
+    private float prevWidth;
+    private float digitWidth;
+
+    private final int[] arrowX = new int[3];
+    private final int[] arrowY = new int[3];
+
+    /**
+     * linkGap is the resting distance between neighbouring boxes; textX and
+     * textY place the first label line relative to the box corner.
+     */
+    RenderResources(int nodeWidth, int nodeHeight, int linkGap, int textX, int textY) {
+        this.nodeWidth = nodeWidth;
+        this.nodeHeight = nodeHeight;
+        this.linkGap = linkGap;
+        this.textX = textX;
+        this.textY = textY;
+    }
+
+    static Color background(boolean dark) {
+        return dark ? DARK_BACKGROUND : LIGHT_BACKGROUND;
+    }
+
+    static Color foreground(boolean dark) {
+        return dark ? Color.WHITE : Color.BLACK;
+    }
+
+    /** Density strip color for a shade from 0 to HEAT_SHADES - 1. */
+    static Color heat(int shade) {
+        return HEAT[Math.max(0, Math.min(HEAT_SHADES - 1, shade))];
+    }
+
+    private static int blend(int from, int to, float t) {
+        return Math.round(from + (to - from) * t);
+    }
+
+    /**
+     * Picks up the device scale and font render context of the graphics about
+     * to be painted; call once per frame before drawing nodes or connectors.
+     */
+    void beginFrame(Graphics2D g2d) {
+        updateScale(g2d);
+        prepareGlyphs(g2d);
+    }
+
+    /**
+     * Draws a whole node box: the sprite, its values and the index label
+     * above it. hasNext and hasPrev say whether the neighbour values apply
+     * or the link is null; highlight blends from the normal box (0) to the
+     * highlighted one (1).
+     */
+    void drawNode(Graphics2D g2d, int x, int y, int index, int data, boolean hasNext, int next,
+            boolean hasPrev, int prev, float highlight, boolean prevLinks, boolean dark) {
+        drawSprite(g2d, sprite(highlight >= 1f, prevLinks, dark), x, y);
+        if (highlight > 0f && highlight < 1f) {
+            Composite composite = g2d.getComposite();
+            g2d.setComposite(AlphaComposite.SrcOver.derive(highlight));
+            drawSprite(g2d, sprite(true, prevLinks, dark), x, y);
+            g2d.setComposite(composite);
+        }
+
+        int lineX = x + textX;
+        int lineY = y + textY;
+        g2d.setColor(Color.WHITE);
+        g2d.drawGlyphVector(values.get(data), lineX + dataWidth, lineY);
+        g2d.drawGlyphVector(hasNext ? values.get(next) : nullGlyphs, lineX + nextWidth, lineY + 20);
+        if (prevLinks) {
+            g2d.drawGlyphVector(hasPrev ? values.get(prev) : nullGlyphs, lineX + prevWidth, lineY + 40);
+        }
+
+        g2d.setColor(INDEX_COLOR);
+        g2d.drawGlyphVector(indexes.get(index), x + 10, y - 5);
+    }
+
+    /** Draws a removed node's box and value, faded to the given opacity. */
+    void drawGhost(Graphics2D g2d, int x, int y, int data, float alpha, boolean prevLinks, boolean dark) {
+        Composite composite = g2d.getComposite();
+        g2d.setComposite(AlphaComposite.SrcOver.derive(Math.max(0f, Math.min(1f, alpha))));
+        drawSprite(g2d, sprite(false, prevLinks, dark), x, y);
+        g2d.setColor(Color.WHITE);
+        g2d.drawGlyphVector(values.get(data), x + textX + dataWidth, y + textY);
+        g2d.setComposite(composite);
+    }
+
+    /** Draws the link from a box's right edge at x1 to the next box's left edge at x2. */
+    void drawConnector(Graphics2D g2d, int x1, int x2, int y, boolean dark) {
+        int length = x2 - x1;
+        if (length != linkGap) {
+            // Only moving nodes stretch their links; draw those directly
+            g2d.setColor(foreground(dark));
+            g2d.setStroke(LINK_STROKE);
+            g2d.drawLine(x1, y, x2, y);
+            fillArrowHead(g2d, x2, y, Math.PI);
+            return;
+        }
+        int key = dark ? 1 : 0;
+        BufferedImage connector = connectors[key];
+        if (connector == null) {
+            connector = renderConnector(length, dark, spriteScale);
+            connectors[key] = connector;
+        }
+        g2d.drawImage(connector, x1 - CONNECTOR_PAD, y - CONNECTOR_PAD,
+                length + 2 * CONNECTOR_PAD + ARROW_SIZE, 2 * CONNECTOR_PAD, null);
+    }
+
+    /** Draws a zoomed-out node: a plain box, with its value if the value fits. */
+    void drawChip(Graphics2D g2d, int x, int y, int width, int height, int data, boolean highlighted, boolean dark) {
+        g2d.setColor(highlighted ? HIGHLIGHT_COLOR : NODE_COLOR);
+        g2d.fillRect(x, y, width, height);
+        if (width >= 12) {
+            g2d.setColor(foreground(dark));
+            g2d.setStroke(THIN_STROKE);
+            g2d.drawRect(x, y, width, height);
+        }
+        if (digits(data) * digitWidth + 6 <= width) {
+            g2d.setColor(Color.WHITE);
+            g2d.drawGlyphVector(values.get(data), x + 3, y + height / 2 + 4);
+        }
+    }
+
+    /** Draws the short link between two chips. */
+    void drawThinLink(Graphics2D g2d, int x1, int x2, int y, boolean dark) {
+        g2d.setColor(foreground(dark));
+        g2d.setStroke(THIN_STROKE);
+        g2d.drawLine(x1, y, x2, y);
+    }
+
+    /** Draws a "Node i" label with its left end at x. */
+    void drawIndexLabel(Graphics2D g2d, int x, int y, int index) {
+        g2d.setColor(INDEX_COLOR);
+        g2d.drawGlyphVector(indexes.get(index), x, y);
+    }
+
+    // Characters in the decimal form of value, sign included
+    private static int digits(int value) {
+        int digits = value < 0 ? 2 : 1;
+        for (long rest = Math.abs((long) value) / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        return digits;
+    }
+
+    void fillArrowHead(Graphics2D g2d, int x, int y, double angle) {
+        int arrowSize = ARROW_SIZE;
+        arrowX[0] = x;
+        arrowY[0] = y;
+        arrowX[1] = x - (int) (arrowSize * Math.cos(angle - Math.PI / 6));
+        arrowY[1] = y - (int) (arrowSize * Math.sin(angle - Math.PI / 6));
+        arrowX[2] = x - (int) (arrowSize * Math.cos(angle + Math.PI / 6));
+        arrowY[2] = y - (int) (arrowSize * Math.sin(angle + Math.PI / 6));
+        g2d.fillPolygon(arrowX, arrowY, 3);
+    }
+
+    private void drawSprite(Graphics2D g2d, BufferedImage sprite, int x, int y) {
+        g2d.drawImage(sprite, x - PAD, y - PAD, nodeWidth + 2 * PAD, nodeHeight + 2 * PAD, null);
+    }
+
+    private BufferedImage sprite(boolean highlighted, boolean prevLinks, boolean dark) {
+        int key = (highlighted ? 4 : 0) | (prevLinks ? 2 : 0) | (dark ? 1 : 0);
+        BufferedImage sprite = sprites[key];
+        if (sprite == null) {
+            sprite = renderSprite(highlighted, prevLinks, dark, spriteScale);
+            sprites[key] = sprite;
+        }
+        return sprite;
+    }
+
+    // Sprites are rasterized at the device scale so HiDPI screens stay sharp
+    private void updateScale(Graphics2D g2d) {
+        AffineTransform transform = g2d.getTransform();
+        double scale = Math.max(Math.abs(transform.getScaleX()), Math.abs(transform.getScaleY()));
+        if (scale != spriteScale) {
+            java.util.Arrays.fill(sprites, null);
+            java.util.Arrays.fill(connectors, null);
+            spriteScale = scale;
+        }
+    }
+
+    private BufferedImage renderConnector(int length, boolean dark, double scale) {
+        int width = length + 2 * CONNECTOR_PAD + ARROW_SIZE;
+        int height = 2 * CONNECTOR_PAD;
+        BufferedImage image = new BufferedImage((int) Math.ceil(width * scale), (int) Math.ceil(height * scale),
+                BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.scale(scale, scale);
+        g.translate(CONNECTOR_PAD, CONNECTOR_PAD);
+        g.setColor(foreground(dark));
+        g.setStroke(LINK_STROKE);
+        g.drawLine(0, 0, length, 0);
+        fillArrowHead(g, length, 0, Math.PI);
+        g.dispose();
+        return image;
+    }
+
+    private BufferedImage renderSprite(boolean highlighted, boolean prevLinks, boolean dark, double scale) {
+        int width = (int) Math.ceil((nodeWidth + 2 * PAD) * scale);
+        int height = (int) Math.ceil((nodeHeight + 2 * PAD) * scale);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.scale(scale, scale);
+        g.translate(PAD, PAD);
+
+        g.setColor(highlighted ? HIGHLIGHT_COLOR : NODE_COLOR);
+        g.fillRoundRect(0, 0, nodeWidth, nodeHeight, ARC, ARC);
+        g.setColor(foreground(dark));
+        g.setStroke(LINK_STROKE);
+        g.drawRoundRect(0, 0, nodeWidth, nodeHeight, ARC, ARC);
+
+        // The fixed part of each label line is baked in; values are drawn on top
+        g.setColor(Color.WHITE);
+        g.setFont(NODE_FONT);
+        g.drawString(DATA_LABEL, textX, textY);
+        g.drawString(NEXT_LABEL, textX, textY + 20);
+        if (prevLinks) {
+            g.drawString(PREV_LABEL, textX, textY + 40);
+        }
+        g.dispose();
+        return image;
+    }
+
+    // Glyph layouts depend on the font render context, so rebuild them when it changes
+    private void prepareGlyphs(Graphics2D g2d) {
+        FontRenderContext context = g2d.getFontRenderContext();
+        if (context.equals(glyphContext))
+            return;
+        glyphContext = context;
+        values.reset(context, NODE_FONT);
+        indexes.reset(context, INDEX_FONT);
+        nullGlyphs = NODE_FONT.createGlyphVector(context, NULL_LABEL);
+        dataWidth = advance(context, DATA_LABEL);
+        nextWidth = advance(context, NEXT_LABEL);
+        prevWidth = advance(context, PREV_LABEL);
+        digitWidth = advance(context, "0");
+    }
+
+    private static float advance(FontRenderContext context, String text) {
+        return (float) NODE_FONT.getStringBounds(text, context).getWidth();
+    }
+
+    /**
+     * Direct-mapped int -> glyph layout cache. A hit costs an array lookup;
+     * a miss lays out prefix + key and overwrites whatever shared its slot.
+     */
+    private static final class GlyphCache {
+        private static final int SLOTS = 1024;
+
+        private final String prefix;
+        private final int[] keys = new int[SLOTS];
+        private final GlyphVector[] glyphs = new GlyphVector[SLOTS];
+        private FontRenderContext context;
+        private Font font;
+
+        GlyphCache(String prefix) {
+            this.prefix = prefix;
+        }
+
+        void reset(FontRenderContext context, Font font) {
+            this.context = context;
+            this.font = font;
+            java.util.Arrays.fill(glyphs, null);
+        }
+
+        GlyphVector get(int key) {
+            int slot = (key ^ (key >>> 16)) & (SLOTS - 1);
+            GlyphVector cached = glyphs[slot];
+            if (cached != null && keys[slot] == key)
+                return cached;
+            cached = font.createGlyphVector(context, prefix + key);
+            keys[slot] = key;
+            glyphs[slot] = cached;
+            return cached;
+        }
+    }
+}
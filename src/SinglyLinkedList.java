@@ -2,22 +2,57 @@
 package src;
 
 import java.util.*;
+import java.util.function.IntPredicate;
 
-public class SinglyLinkedList {
+public class SinglyLinkedList implements ListEngine {
     public Node head;
-    private List<NodeChangeListener> listeners = new ArrayList<>();
+    private Node tail;
+    private int size;
+    // Optional value -> node index. Only while it is on do nodes keep a prev
+    // back-link, so an indexed delete can unlink without scanning for the
+    // predecessor; with it off the list is singly linked and prev stays null.
+    private ValueIndex index;
+    private PositionIndex positions; // optional skip lanes for positional lookups
+    private final ListChangeBus bus = new ListChangeBus();
 
-    public interface NodeChangeListener {
-        void onNodeChanged(String operation, String nodeId);
+    public void addChangeListener(ListChangeListener listener) {
+        bus.addListener(listener);
     }
 
-    public void addChangeListener(NodeChangeListener listener) {
-        listeners.add(listener);
+    public void removeChangeListener(ListChangeListener listener) {
+        bus.removeListener(listener);
     }
 
-    private void notifyListeners(String operation, String nodeId) {
-        for (NodeChangeListener listener : listeners) {
-            listener.onNodeChanged(operation, nodeId);
+    public ListChangeBus changeBus() {
+        return bus;
+    }
+
+    // before is the node now linking to node, or null at the head
+    private void notifyInserted(ListChangeEvent.Op op, Node before, Node node, int position) {
+        if (bus.hasListeners()) {
+            bus.publish(new ListChangeEvent(bus.nextSequence(), op, node.id, node.data, position,
+                    Node.idOf(before), Node.idOf(node.next), 1));
+        }
+    }
+
+    // Removed nodes keep their old next link, which with before names the neighbours now joined
+    private void notifyRemoved(ListChangeEvent.Op op, Node before, Node node, int position) {
+        if (bus.hasListeners()) {
+            bus.publish(new ListChangeEvent(bus.nextSequence(), op, node.id, node.data, position,
+                    Node.idOf(before), Node.idOf(node.next), 1));
+        }
+    }
+
+    private void notifyBulkInserted(Node before, Node first, Node last, int position, int count) {
+        if (bus.hasListeners()) {
+            bus.publish(new ListChangeEvent(bus.nextSequence(), ListChangeEvent.Op.BULK_INSERT, first.id, first.data,
+                    position, Node.idOf(before), Node.idOf(last.next), count));
+        }
+    }
+
+    private void notifyChanged(ListChangeEvent.Op op, int count) {
+        if (bus.hasListeners()) {
+            bus.publish(ListChangeEvent.of(bus.nextSequence(), op, count));
         }
     }
 
@@ -27,29 +62,128 @@ public class SinglyLinkedList {
         while (temp != null) {
             list.add(temp);
             temp = temp.next;
+            HopCounter.hop();
+        }
+        return list;
+    }
+
+    public List<Node> getNodes(int from, int count) {
+        from = Math.max(0, from);
+        count = Math.max(0, Math.min(count, size - from));
+        List<Node> list = new ArrayList<>(count);
+        Node temp = count == 0 ? null : nodeAt(from);
+        for (int i = 0; i < count; i++) {
+            list.add(temp);
+            temp = temp.next;
+            HopCounter.hop();
         }
         return list;
     }
 
+    public int size() {
+        return size;
+    }
+
+    public ListCursor cursor() {
+        return new NodeCursor(head, size);
+    }
+
+    public boolean supportsValueIndex() {
+        return true;
+    }
+
+    public boolean supportsPositionIndex() {
+        return true;
+    }
+
+    /**
+     * Turns the value index on or off, together with the prev back-links it
+     * relies on. While it is on, search and deleteValue are expected O(1) for
+     * a distinct value; a value held k times costs about k times the gap
+     * between its copies. Either way they act on the first match in list
+     * order.
+     */
+    public boolean setValueIndexEnabled(boolean enabled) {
+        if (!enabled) {
+            if (index != null) {
+                for (Node temp = head; temp != null; temp = temp.next) {
+                    temp.prev = null;
+                    HopCounter.hop();
+                }
+            }
+            index = null;
+        } else if (index == null) {
+            index = new ValueIndex();
+            Node before = null;
+            for (Node temp = head; temp != null; temp = temp.next) {
+                index.add(temp);
+                temp.prev = before;
+                before = temp;
+                HopCounter.hop();
+            }
+        }
+        return true;
+    }
+
+    public boolean isValueIndexEnabled() {
+        return index != null;
+    }
+
+    public long valueIndexBytes() {
+        return index == null ? 0 : index.estimatedBytes();
+    }
+
+    /**
+     * Turns the skip-lane position index on or off. While it is on, insertAt
+     * and deleteAt find their node in expected O(log n) hops, and every insert
+     * or delete pays O(log n) to keep the lanes current.
+     */
+    public boolean setPositionIndexEnabled(boolean enabled) {
+        if (!enabled) {
+            positions = null;
+        } else if (positions == null) {
+            positions = new PositionIndex(); // built from the chain on first use
+        }
+        return true;
+    }
+
+    public boolean isPositionIndexEnabled() {
+        return positions != null;
+    }
+
     public void insertStart(int data) {
-        Node newNode = new Node(data);
+        Node newNode = newNode(data);
         newNode.next = head;
+        if (head == null) {
+            tail = newNode;
+        } else if (index != null) {
+            head.prev = newNode;
+        }
         head = newNode;
-        notifyListeners("ins-start", newNode.getId());
+        size++;
+        if (positions != null) {
+            positions.inserted(0, newNode);
+        }
+        notifyInserted(ListChangeEvent.Op.INSERT_START, null, newNode, 0);
     }
 
     public void insertEnd(int data) {
-        Node newNode = new Node(data);
+        Node newNode = newNode(data);
+        Node before = tail;
         if (head == null) {
             head = newNode;
-            notifyListeners("ins-end", newNode.getId());
-            return;
+        } else {
+            tail.next = newNode;
+            if (index != null) {
+                newNode.prev = tail;
+            }
         }
-        Node temp = head;
-        while (temp.next != null)
-            temp = temp.next;
-        temp.next = newNode;
-        notifyListeners("ins-end", newNode.getId());
+        tail = newNode;
+        size++;
+        if (positions != null) {
+            positions.inserted(size - 1, newNode);
+        }
+        notifyInserted(ListChangeEvent.Op.INSERT_END, before, newNode, size - 1);
     }
 
     public void insertAt(int data, int position) {
@@ -58,95 +192,363 @@ public class SinglyLinkedList {
             return;
         }
 
-        Node newNode = new Node(data);
-        Node temp = head;
-        for (int i = 0; i < position - 1 && temp != null; i++) {
-            temp = temp.next;
+        if (position > size || head == null) {
+            insertEnd(data);
+            return;
         }
 
-        if (temp == null) {
-            insertEnd(data);
+        // position == size links after the tail without walking the list;
+        // a negative position inserts right after the head
+        Node temp;
+        if (position == size) {
+            temp = tail;
+        } else if (position < 0) {
+            temp = head;
+            position = 1;
         } else {
-            newNode.next = temp.next;
-            temp.next = newNode;
-            notifyListeners("ins-pos", newNode.getId());
+            temp = nodeAt(position - 1);
+        }
+
+        Node newNode = newNode(data);
+        newNode.next = temp.next;
+        if (temp.next == null) {
+            tail = newNode;
+        } else if (index != null) {
+            temp.next.prev = newNode;
+        }
+        if (index != null) {
+            newNode.prev = temp;
         }
+        temp.next = newNode;
+        size++;
+        if (positions != null) {
+            positions.inserted(position, newNode);
+        }
+        notifyInserted(ListChangeEvent.Op.INSERT_AT, temp, newNode, position);
     }
 
     public void deleteValue(int data) {
         if (head == null)
             return;
 
+        if (index != null) {
+            Node found = index.first(data, head);
+            if (found != null) {
+                Node before = found.prev;
+                if (found == head) {
+                    unlinkHead();
+                } else {
+                    unlinkAfter(before, -1);
+                }
+                notifyRemoved(ListChangeEvent.Op.DELETE_VALUE, before, found, -1);
+            }
+            return;
+        }
+
+        HopCounter.compare();
         if (head.data == data) {
-            String deletedId = head.getId();
-            head = head.next;
-            notifyListeners("del-value", deletedId);
+            Node removed = head;
+            unlinkHead();
+            notifyRemoved(ListChangeEvent.Op.DELETE_VALUE, null, removed, 0);
             return;
         }
 
         Node temp = head;
+        int position = 1;
         while (temp.next != null && temp.next.data != data) {
             temp = temp.next;
+            position++;
+            HopCounter.hop();
+            HopCounter.compare();
         }
 
         if (temp.next != null) {
-            String deletedId = temp.next.getId();
-            temp.next = temp.next.next;
-            notifyListeners("del-value", deletedId);
+            Node removed = temp.next;
+            unlinkAfter(temp, position);
+            notifyRemoved(ListChangeEvent.Op.DELETE_VALUE, temp, removed, position);
         }
     }
 
     public void deleteAt(int position) {
-        if (head == null)
+        if (head == null || position >= size)
             return;
 
         if (position == 0) {
-            String deletedId = head.getId();
-            head = head.next;
-            notifyListeners("del-position", deletedId);
+            Node removed = head;
+            unlinkHead();
+            notifyRemoved(ListChangeEvent.Op.DELETE_AT, null, removed, 0);
             return;
         }
 
-        Node temp = head;
-        for (int i = 0; i < position - 1 && temp != null; i++) {
-            temp = temp.next;
+        // a negative position deletes the node right after the head
+        Node temp;
+        if (position < 0) {
+            temp = head;
+            position = 1;
+        } else {
+            temp = nodeAt(position - 1);
         }
 
-        if (temp != null && temp.next != null) {
-            String deletedId = temp.next.getId();
-            temp.next = temp.next.next;
-            notifyListeners("del-position", deletedId);
+        if (temp.next != null) {
+            Node removed = temp.next;
+            unlinkAfter(temp, position);
+            notifyRemoved(ListChangeEvent.Op.DELETE_AT, temp, removed, position);
         }
     }
 
     public void reverse() {
-        Node prev = null;
+        Node previous = null;
         Node current = head;
         Node next = null;
 
         while (current != null) {
             next = current.next;
-            current.next = prev;
-            prev = current;
+            current.next = previous;
+            if (index != null) {
+                current.prev = next;
+            }
+            previous = current;
             current = next;
+            HopCounter.hop();
+        }
+
+        Node oldHead = head;
+        head = tail;
+        tail = oldHead;
+        if (positions != null) {
+            positions.invalidate();
+        }
+        notifyChanged(ListChangeEvent.Op.REVERSE, size);
+    }
+
+    public void insertAll(int[] values) {
+        insertAllAt(size, values);
+    }
+
+    /**
+     * Links values in as one block whose first element lands at position
+     * (clamped to the list bounds), then fires a single BULK_INSERT event.
+     */
+    public void insertAllAt(int position, int[] values) {
+        if (values.length == 0)
+            return;
+        position = Math.max(0, Math.min(position, size));
+
+        Node first = newNode(values[0]);
+        Node last = first;
+        for (int i = 1; i < values.length; i++) {
+            Node newNode = newNode(values[i]);
+            if (index != null) {
+                newNode.prev = last;
+            }
+            last.next = newNode;
+            last = newNode;
+        }
+
+        Node before = null;
+        if (head == null) {
+            head = first;
+            tail = last;
+        } else if (position <= 0) {
+            last.next = head;
+            if (index != null) {
+                head.prev = last;
+            }
+            head = first;
+        } else {
+            before = position >= size ? tail : nodeAt(position - 1);
+            last.next = before.next;
+            if (before.next == null) {
+                tail = last;
+            } else if (index != null) {
+                before.next.prev = last;
+            }
+            if (index != null) {
+                first.prev = before;
+            }
+            before.next = first;
+        }
+        size += values.length;
+        if (positions != null) {
+            positions.invalidate();
         }
+        notifyBulkInserted(before, first, last, position, values.length);
+    }
+
+    /** Removes every node whose value matches in one pass; fires one BULK_REMOVE event. */
+    public int removeIf(IntPredicate filter) {
+        Node kept = null; // last surviving node so far
+        int removed = 0;
+        for (Node temp = head; temp != null; temp = temp.next) {
+            HopCounter.hop();
+            HopCounter.compare();
+            if (filter.test(temp.data)) {
+                if (index != null) {
+                    index.remove(temp);
+                }
+                removed++;
+            } else {
+                if (index != null) {
+                    temp.prev = kept;
+                }
+                if (kept == null) {
+                    head = temp;
+                } else {
+                    kept.next = temp;
+                }
+                kept = temp;
+            }
+        }
+
+        if (removed == 0)
+            return 0;
+        if (kept == null) {
+            head = null;
+        } else {
+            kept.next = null;
+        }
+        tail = kept;
+        size -= removed;
+        if (positions != null) {
+            positions.invalidate();
+        }
+        notifyChanged(ListChangeEvent.Op.BULK_REMOVE, removed);
+        return removed;
+    }
+
+    /** Keeps only positions from (inclusive) to to (exclusive); fires one BULK_REMOVE event. */
+    public int retainRange(int from, int to) {
+        from = Math.max(0, from);
+        to = Math.min(size, to);
+        int kept = Math.max(0, to - from);
+        int removed = size - kept;
+        if (removed == 0)
+            return 0;
 
-        head = prev;
-        notifyListeners("reverse", null);
+        if (kept == 0) {
+            head = null;
+            tail = null;
+            if (index != null) {
+                index.clear();
+            }
+        } else {
+            Node first = nodeAt(from);
+            Node last = first;
+            for (int i = 1; i < kept; i++) {
+                last = last.next;
+                HopCounter.hop();
+            }
+            if (index != null) {
+                for (Node temp = head; temp != first; temp = temp.next) {
+                    index.remove(temp);
+                    HopCounter.hop();
+                }
+                for (Node temp = last.next; temp != null; temp = temp.next) {
+                    index.remove(temp);
+                    HopCounter.hop();
+                }
+            }
+            first.prev = null;
+            last.next = null;
+            head = first;
+            tail = last;
+        }
+        size = kept;
+        if (positions != null) {
+            positions.invalidate();
+        }
+        notifyChanged(ListChangeEvent.Op.BULK_REMOVE, removed);
+        return removed;
     }
 
     public Node search(int data) {
+        if (index != null) {
+            return index.first(data, head);
+        }
         Node temp = head;
         while (temp != null) {
+            HopCounter.compare();
             if (temp.data == data)
                 return temp;
             temp = temp.next;
+            HopCounter.hop();
         }
         return null;
     }
 
     public void clear() {
+        int removed = size;
         head = null;
-        notifyListeners("clear", null);
+        tail = null;
+        size = 0;
+        if (index != null) {
+            index.clear();
+        }
+        if (positions != null) {
+            positions.clear();
+        }
+        notifyChanged(ListChangeEvent.Op.CLEAR, removed);
+    }
+
+    private Node newNode(int data) {
+        Node newNode = new Node(data);
+        if (index != null) {
+            index.add(newNode);
+        }
+        return newNode;
+    }
+
+    private Node nodeAt(int position) {
+        if (positions != null) {
+            if (positions.isStale()) {
+                positions.rebuild(head, size);
+            }
+            return positions.nodeAt(head, position);
+        }
+        Node temp = head;
+        for (int i = 0; i < position; i++) {
+            temp = temp.next;
+            HopCounter.hop();
+        }
+        return temp;
+    }
+
+    private void unlinkHead() {
+        if (index != null) {
+            index.remove(head);
+        }
+        head = head.next;
+        if (head == null) {
+            tail = null;
+        } else if (index != null) {
+            head.prev = null;
+        }
+        size--;
+        if (positions != null) {
+            positions.removed(0);
+        }
+    }
+
+    // position is that of the removed node, or -1 when the caller does not know it
+    private void unlinkAfter(Node node, int position) {
+        Node removed = node.next;
+        if (index != null) {
+            index.remove(removed);
+        }
+        node.next = removed.next;
+        if (removed.next == null) {
+            tail = node;
+        } else if (index != null) {
+            removed.next.prev = node;
+        }
+        size--;
+        if (positions == null) {
+            return;
+        }
+        if (position < 0) {
+            positions.invalidate();
+        } else {
+            positions.removed(position);
+        }
     }
-}
\ No newline at end of file
+}
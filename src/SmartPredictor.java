@@ -1,195 +1,168 @@
-// SmartPredictor.java - IMPROVED VERSION
+// SmartPredictor.java - Next-operation predictions from a transition matrix
 package src;
 
 import java.util.*;
 
+/**
+ * Learns which operation tends to follow which, and how often each is used,
+ * and suggests the likeliest next operations. Counts live in int arrays
+ * indexed by Workload.Op, the operations the GUI records, and the row
+ * totals are kept as operations are recorded, so a prediction is one
+ * O(ops) pass with no boxing. Predictions and their reasoning text are
+ * only built when asked for, and cached until the next operation is
+ * recorded.
+ */
 public class SmartPredictor {
-    private Map<String, Integer> operationFrequency;
-    private List<String> operationSequence;
-    private Map<String, Map<String, Integer>> transitionMatrix;
-    private final int MAX_HISTORY = 50;
-
-    public SmartPredictor() {
-        operationFrequency = new HashMap<>();
-        operationSequence = new ArrayList<>();
-        transitionMatrix = new HashMap<>();
-        initializeOperations();
+    private static final int TOP = 4;
+    private static final double FREQUENCY_BOOST = 1.5;
+    private static final double FREQUENCY_CAP = 0.8;
+
+    private static final Workload.Op[] OPS = Workload.Op.values();
+
+    // Labels keyed by constant, so reordering Workload.Op cannot shift them
+    private static final Map<Workload.Op, String> PHRASES = new EnumMap<>(Workload.Op.class);
+    private static final Map<Workload.Op, String> TITLES = new EnumMap<>(Workload.Op.class);
+
+    static {
+        label(Workload.Op.INSERT_START, "insert at start", "Insert Start");
+        label(Workload.Op.INSERT_END, "insert at end", "Insert End");
+        label(Workload.Op.INSERT_AT, "insert at position", "Insert At Position");
+        label(Workload.Op.DELETE_VALUE, "delete by value", "Delete Value");
+        label(Workload.Op.DELETE_AT, "delete at position", "Delete At Position");
+        label(Workload.Op.REVERSE, "reverse", "Reverse List");
+        label(Workload.Op.SEARCH, "search", "Search");
+        label(Workload.Op.CLEAR, "clear", "Clear List");
+        if (TITLES.size() != OPS.length)
+            throw new ExceptionInInitializerError("SmartPredictor has no label for some Workload.Op");
     }
 
-    private void initializeOperations() {
-        String[] operations = { "INSERT_START", "INSERT_END", "INSERT_AT",
-                "DELETE_VALUE", "DELETE_AT", "SEARCH", "REVERSE", "CLEAR" };
-
-        for (String op : operations) {
-            operationFrequency.put(op, 0);
-            transitionMatrix.put(op, new HashMap<>());
-
-            // Initialize transitions for each operation
-            for (String targetOp : operations) {
-                transitionMatrix.get(op).put(targetOp, 0);
-            }
-        }
+    private static void label(Workload.Op operation, String phrase, String title) {
+        PHRASES.put(operation, phrase);
+        TITLES.put(operation, title);
     }
 
+    // Suggestions before anything has been recorded
+    private static final List<Prediction> DEFAULTS = Collections.unmodifiableList(Arrays.asList(
+            new Prediction(Workload.Op.INSERT_START, 0.4, "Most users start by inserting at beginning"),
+            new Prediction(Workload.Op.INSERT_END, 0.3, "Common second operation"),
+            new Prediction(Workload.Op.SEARCH, 0.2, "Try searching for values"),
+            new Prediction(Workload.Op.CLEAR, 0.1, "Clear the list when done")));
+
+    private final int[] frequency = new int[OPS.length];
+    private final int[][] transitions = new int[OPS.length][OPS.length];
+    private final int[] transitionTotals = new int[OPS.length];
+    private int totalOperations;
+    private Workload.Op lastOperation;
+
+    // Top-k scratch, reused by every prediction
+    private final int[] topOperations = new int[TOP];
+    private final double[] topScores = new double[TOP];
+    private List<Prediction> predictions = DEFAULTS;
+
+    /** Records an operation by name, like INSERT_START; other names are ignored. */
     public void recordOperation(String operation, int value) {
-        // Update frequency
-        operationFrequency.put(operation, operationFrequency.getOrDefault(operation, 0) + 1);
-
-        // Update transition probabilities
-        if (!operationSequence.isEmpty()) {
-            String previousOp = operationSequence.get(operationSequence.size() - 1);
-            Map<String, Integer> transitions = transitionMatrix.get(previousOp);
-            transitions.put(operation, transitions.getOrDefault(operation, 0) + 1);
-        }
-
-        // Add to sequence (limit history)
-        operationSequence.add(operation);
-        if (operationSequence.size() > MAX_HISTORY) {
-            operationSequence.remove(0);
+        for (Workload.Op op : OPS) {
+            if (op.name().equals(operation)) {
+                recordOperation(op, value);
+                return;
+            }
         }
     }
 
-    public List<Prediction> getPredictions() {
-        List<Prediction> predictions = new ArrayList<>();
-
-        if (operationSequence.isEmpty()) {
-            // Default predictions for new users
-            predictions.add(new Prediction("INSERT_START", 0.4, "Most users start by inserting at beginning"));
-            predictions.add(new Prediction("INSERT_END", 0.3, "Common second operation"));
-            predictions.add(new Prediction("SEARCH", 0.2, "Try searching for values"));
-            predictions.add(new Prediction("CLEAR", 0.1, "Clear the list when done"));
-            return predictions;
-        }
-
-        String lastOperation = operationSequence.get(operationSequence.size() - 1);
-        Map<String, Integer> transitions = transitionMatrix.get(lastOperation);
-
-        // Calculate probabilities based on transitions
-        int totalTransitions = transitions.values().stream().mapToInt(Integer::intValue).sum();
-
-        // IMPROVEMENT: Mix transition-based and frequency-based predictions
-        if (totalTransitions > 0) {
-            // Use transition-based predictions (more accurate)
-            for (Map.Entry<String, Integer> entry : transitions.entrySet()) {
-                if (entry.getValue() > 0) {
-                    double probability = (double) entry.getValue() / totalTransitions;
-                    String reasoning = String.format("After %s, you usually %s next (%d times)",
-                            getReadableName(lastOperation), getReadableName(entry.getKey()), entry.getValue());
-                    predictions.add(new Prediction(entry.getKey(), probability, reasoning));
-                }
-            }
+    public void recordOperation(Workload.Op operation, int value) {
+        int to = operation.ordinal();
+        frequency[to]++;
+        totalOperations++;
+        if (lastOperation != null) {
+            int from = lastOperation.ordinal();
+            transitions[from][to]++;
+            transitionTotals[from]++;
         }
-
-        // IMPROVEMENT: Always include frequency-based predictions as fallback
-        predictions.addAll(getEnhancedFrequencyBasedPredictions());
-
-        // IMPROVEMENT: Remove duplicates and sort by confidence
-        predictions = removeDuplicatePredictions(predictions);
-        predictions.sort((a, b) -> Double.compare(b.confidence, a.confidence));
-
-        return predictions.subList(0, Math.min(4, predictions.size()));
+        lastOperation = operation;
+        predictions = null;
     }
 
-    private List<Prediction> getEnhancedFrequencyBasedPredictions() {
-        List<Prediction> predictions = new ArrayList<>();
-        int totalOps = operationFrequency.values().stream().mapToInt(Integer::intValue).sum();
-
-        if (totalOps == 0)
-            return predictions;
-
-        // IMPROVEMENT: Boost confidence for operations that are frequently used
-        for (Map.Entry<String, Integer> entry : operationFrequency.entrySet()) {
-            if (entry.getValue() > 0) {
-                double baseProbability = (double) entry.getValue() / totalOps;
-                // Boost probability for frequently used operations
-                double boostedProbability = baseProbability * 1.5;
-                String reasoning = String.format("You use this frequently (%d times)", entry.getValue());
-                predictions.add(new Prediction(entry.getKey(), Math.min(boostedProbability, 0.8), reasoning));
-            }
+    /** Up to four likeliest next operations, most confident first. */
+    public List<Prediction> getPredictions() {
+        if (predictions == null) {
+            predictions = predict();
         }
-
         return predictions;
     }
 
-    private List<Prediction> removeDuplicatePredictions(List<Prediction> predictions) {
-        Map<String, Prediction> uniquePredictions = new LinkedHashMap<>();
-
-        for (Prediction prediction : predictions) {
-            if (!uniquePredictions.containsKey(prediction.operation) ||
-                    uniquePredictions.get(prediction.operation).confidence < prediction.confidence) {
-                uniquePredictions.put(prediction.operation, prediction);
+    /**
+     * Scores each operation as the higher of its transition probability from
+     * the last operation and its boosted overall frequency, keeping the best
+     * four in the scratch arrays. Ties keep Workload.Op order.
+     */
+    private List<Prediction> predict() {
+        int from = lastOperation.ordinal();
+        int[] row = transitions[from];
+        int rowTotal = transitionTotals[from];
+        int count = 0;
+        for (int op = 0; op < row.length; op++) {
+            double transition = rowTotal > 0 ? (double) row[op] / rowTotal : 0;
+            double usage = Math.min((double) frequency[op] / totalOperations * FREQUENCY_BOOST, FREQUENCY_CAP);
+            double score = Math.max(transition, usage);
+            if (score <= 0)
+                continue;
+            int slot = Math.min(count, TOP);
+            while (slot > 0 && topScores[slot - 1] < score) {
+                slot--;
             }
+            if (slot == TOP)
+                continue;
+            for (int i = Math.min(count, TOP - 1); i > slot; i--) {
+                topScores[i] = topScores[i - 1];
+                topOperations[i] = topOperations[i - 1];
+            }
+            topScores[slot] = score;
+            topOperations[slot] = op;
+            count = Math.min(count + 1, TOP);
         }
 
-        return new ArrayList<>(uniquePredictions.values());
-    }
-
-    private String getReadableName(String operation) {
-        switch (operation) {
-            case "INSERT_START":
-                return "insert at start";
-            case "INSERT_END":
-                return "insert at end";
-            case "INSERT_AT":
-                return "insert at position";
-            case "DELETE_VALUE":
-                return "delete by value";
-            case "DELETE_AT":
-                return "delete at position";
-            case "SEARCH":
-                return "search";
-            case "REVERSE":
-                return "reverse";
-            case "CLEAR":
-                return "clear";
-            default:
-                return operation.toLowerCase();
+        Prediction[] top = new Prediction[count];
+        for (int i = 0; i < count; i++) {
+            int op = topOperations[i];
+            double transition = rowTotal > 0 ? (double) row[op] / rowTotal : 0;
+            top[i] = transition >= topScores[i]
+                    ? new Prediction(OPS[op], topScores[i], lastOperation, row[op])
+                    : new Prediction(OPS[op], topScores[i], null, frequency[op]);
         }
+        return Collections.unmodifiableList(Arrays.asList(top));
     }
 
-    // Prediction data class (unchanged)
     public static class Prediction {
-        public String operation;
-        public double confidence;
-        public String reasoning;
+        public final Workload.Op operation;
+        public final double confidence;
+        public final String reasoning;
 
-        public Prediction(String operation, double confidence, String reasoning) {
+        Prediction(Workload.Op operation, double confidence, String reasoning) {
             this.operation = operation;
             this.confidence = confidence;
             this.reasoning = reasoning;
         }
 
+        // after is null when the prediction comes from overall frequency
+        Prediction(Workload.Op operation, double confidence, Workload.Op after, int times) {
+            this(operation, confidence, after != null
+                    ? String.format("After %s, you usually %s next (%d times)", PHRASES.get(after),
+                            PHRASES.get(operation), times)
+                    : String.format("You use this frequently (%d times)", times));
+        }
+
+        /** Why this operation was suggested. */
+        public String getReasoning() {
+            return reasoning;
+        }
+
         @Override
         public String toString() {
-            return String.format("%s (%.0f%%)", getReadableName(operation), confidence * 100);
+            return String.format("%s (%.0f%%)", TITLES.get(operation), confidence * 100);
         }
 
         public String getDetailedString() {
-            return String.format("%s - %.0f%% confident\n%s",
-                    getReadableName(operation), confidence * 100, reasoning);
-        }
-
-        private String getReadableName(String operation) {
-            switch (operation) {
-                case "INSERT_START":
-                    return "Insert Start";
-                case "INSERT_END":
-                    return "Insert End";
-                case "INSERT_AT":
-                    return "Insert At Position";
-                case "DELETE_VALUE":
-                    return "Delete Value";
-                case "DELETE_AT":
-                    return "Delete At Position";
-                case "SEARCH":
-                    return "Search";
-                case "REVERSE":
-                    return "Reverse List";
-                case "CLEAR":
-                    return "Clear List";
-                default:
-                    return operation;
-            }
+            return String.format("%s - %.0f%% confident\n%s", TITLES.get(operation), confidence * 100, reasoning);
         }
     }
-}
\ No newline at end of file
+}
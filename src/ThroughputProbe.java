@@ -0,0 +1,92 @@
+// ThroughputProbe.java - Multi-threaded insert/delete/search load on one list
+package src;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hammers a list that allows concurrent mutation from a number of threads
+ * for a fixed time and reports throughput and CAS contention. The mix is
+ * 30% insertAt, 40% deleteValue and 30% search over a small value range,
+ * which keeps the list at a steady length of a few thousand nodes.
+ */
+final class ThroughputProbe {
+    static final int VALUE_RANGE = 1000;
+
+    /** Outcome of one run. */
+    static final class Result {
+        final int threads;
+        final long operations;
+        final long retries;
+        final long nanos;
+
+        Result(int threads, long operations, long retries, long nanos) {
+            this.threads = threads;
+            this.operations = operations;
+            this.retries = retries;
+            this.nanos = nanos;
+        }
+
+        double operationsPerSecond() {
+            return operations * 1e9 / nanos;
+        }
+
+        /** Failed CAS attempts per thousand operations. */
+        double retriesPerThousand() {
+            return operations == 0 ? 0 : retries * 1000.0 / operations;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%2d threads: %,10.0f ops/s, %6.2f retries/1k ops", threads,
+                    operationsPerSecond(), retriesPerThousand());
+        }
+    }
+
+    private ThroughputProbe() {
+    }
+
+    /** Runs the mix on list from the given number of threads; blocks for about millis. */
+    static Result run(ConcurrentLinkedList list, int threads, long millis) throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long retriesBefore = list.retryCount();
+        long deadline = System.nanoTime() + millis * 1_000_000L;
+
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                try {
+                    start.await();
+                    while ((count & 63) != 0 || System.nanoTime() < deadline) {
+                        int dice = random.nextInt(10);
+                        int value = random.nextInt(VALUE_RANGE);
+                        if (dice < 3) {
+                            list.insertAt(value, random.nextInt(list.size() + 1));
+                        } else if (dice < 7) {
+                            list.deleteValue(value);
+                        } else {
+                            list.search(value);
+                        }
+                        count++;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    operations.add(count);
+                    done.countDown();
+                }
+            }, "throughput-probe-" + t);
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        done.await();
+        return new Result(threads, operations.sum(), list.retryCount() - retriesBefore, System.nanoTime() - began);
+    }
+}
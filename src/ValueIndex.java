@@ -0,0 +1,182 @@
+// ValueIndex.java - Hash multimap from node value to nodes
+package src;
+
+import java.util.*;
+
+/**
+ * Open-addressing hash index from an int value to the nodes holding it, used
+ * by the node-based lists for search and deleteValue. Keys are stored in a
+ * primitive array; a slot holds a single Node directly and only switches to
+ * a Bucket once a value occurs more than once. Lookups are expected O(1) for
+ * a distinct value. When a value is held k times they return the match that
+ * comes first in list order, which costs about k times the gap between the
+ * copies (see first), and remove is O(k).
+ */
+class ValueIndex {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY]; // null, Node or Bucket
+    private int used;
+    private long bucketBytes; // kept as buckets come and go, so estimatedBytes is O(1)
+
+    private static final class Bucket {
+        Node[] nodes = new Node[4];
+        int count;
+    }
+
+    void add(Node node) {
+        if ((used + 1) * 2 > values.length) {
+            resize(values.length * 2);
+        }
+        int slot = find(node.data);
+        Object current = values[slot];
+        if (current == null) {
+            keys[slot] = node.data;
+            values[slot] = node;
+            used++;
+        } else if (current instanceof Node) {
+            Bucket bucket = new Bucket();
+            bucket.nodes[0] = (Node) current;
+            bucket.nodes[1] = node;
+            bucket.count = 2;
+            values[slot] = bucket;
+            bucketBytes += bytes(bucket);
+        } else {
+            Bucket bucket = (Bucket) current;
+            if (bucket.count == bucket.nodes.length) {
+                bucketBytes += 4L * bucket.count;
+                bucket.nodes = Arrays.copyOf(bucket.nodes, bucket.count * 2);
+            }
+            bucket.nodes[bucket.count++] = node;
+        }
+    }
+
+    void remove(Node node) {
+        int slot = find(node.data);
+        Object current = values[slot];
+        if (current == node) {
+            deleteSlot(slot);
+        } else if (current instanceof Bucket) {
+            Bucket bucket = (Bucket) current;
+            for (int i = 0; i < bucket.count; i++) {
+                HopCounter.compare();
+                if (bucket.nodes[i] == node) {
+                    System.arraycopy(bucket.nodes, i + 1, bucket.nodes, i, bucket.count - i - 1);
+                    bucket.nodes[--bucket.count] = null;
+                    break;
+                }
+            }
+            if (bucket.count == 1) {
+                values[slot] = bucket.nodes[0];
+                bucketBytes -= bytes(bucket);
+            }
+        }
+    }
+
+    /**
+     * The node holding value that comes first in list order, or null. Every
+     * node must have its prev link set, and head is where the list starts.
+     * Duplicates are resolved by walking back along prev from all of them in
+     * turn: a walk that meets another match was not the first, and a walk
+     * that reaches head without meeting one was. That costs about the number
+     * of matches times the gap between them, not a scan from the head.
+     */
+    Node first(int value, Node head) {
+        Object current = values[find(value)];
+        if (!(current instanceof Bucket))
+            return (Node) current;
+
+        // Local copies, so lookups from several reader threads never share state
+        Bucket bucket = (Bucket) current;
+        int alive = bucket.count;
+        Node[] starts = Arrays.copyOf(bucket.nodes, alive);
+        Node[] walkers = Arrays.copyOf(bucket.nodes, alive);
+        Node found = null;
+        while (found == null) {
+            for (int i = 0; i < alive;) {
+                if (walkers[i] == head || alive == 1) {
+                    found = starts[i];
+                    break;
+                }
+                Node walker = walkers[i].prev;
+                HopCounter.hop();
+                HopCounter.compare();
+                if (walker.data == value) {
+                    // Another match lies before this one
+                    alive--;
+                    starts[i] = starts[alive];
+                    walkers[i] = walkers[alive];
+                } else {
+                    walkers[i] = walker;
+                    i++;
+                }
+            }
+        }
+        return found;
+    }
+
+    void clear() {
+        keys = new int[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+        used = 0;
+        bucketBytes = 0;
+    }
+
+    /** Approximate heap footprint, assuming compressed references and 16-byte headers. */
+    long estimatedBytes() {
+        return 16 + 16 + 4L * keys.length + 16 + 4L * values.length + bucketBytes;
+    }
+
+    private static long bytes(Bucket bucket) {
+        return 16 + 16 + 4L * bucket.nodes.length;
+    }
+
+    // Returns the slot holding value, or the empty slot where it would go
+    private int find(int value) {
+        int mask = values.length - 1;
+        int slot = mix(value) & mask;
+        while (values[slot] != null && keys[slot] != value) {
+            slot = (slot + 1) & mask;
+            HopCounter.compare();
+        }
+        return slot;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private void deleteSlot(int slot) {
+        int mask = values.length - 1;
+        int gap = slot;
+        int probe = (gap + 1) & mask;
+        while (values[probe] != null) {
+            int home = mix(keys[probe]) & mask;
+            if (((probe - home) & mask) >= ((probe - gap) & mask)) {
+                keys[gap] = keys[probe];
+                values[gap] = values[probe];
+                gap = probe;
+            }
+            probe = (probe + 1) & mask;
+        }
+        values[gap] = null;
+        used--;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
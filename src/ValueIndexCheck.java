@@ -0,0 +1,111 @@
+// ValueIndexCheck.java - Duplicate-value checks for the value index
+package src;
+
+import java.util.*;
+
+/**
+ * Runnable check that the value index picks the same node a plain scan
+ * would. Each node-based list runs a seeded mix of operations over a few
+ * heavily duplicated values, once with the index on and once without.
+ * After every step, search must return the first match in list order and
+ * both lists must hold the same values, so deleteValue removed the same
+ * copy. Exits with status 1 on the first failure.
+ */
+final class ValueIndexCheck {
+    private static final String[] TYPES = { "Singly", "Doubly", "Circular" };
+
+    private ValueIndexCheck() {
+    }
+
+    static void check(String type, int distinct, int operations, long seed) {
+        ListEngine indexed = ListEngine.create(type);
+        ListEngine plain = ListEngine.create(type);
+        indexed.setValueIndexEnabled(true);
+        Random random = new Random(seed);
+        for (int i = 0; i < operations; i++) {
+            int value = random.nextInt(distinct);
+            int position = random.nextInt(plain.size() + 1);
+            switch (random.nextInt(8)) {
+                case 0:
+                case 1:
+                    indexed.insertStart(value);
+                    plain.insertStart(value);
+                    break;
+                case 2:
+                    indexed.insertEnd(value);
+                    plain.insertEnd(value);
+                    break;
+                case 3:
+                    indexed.insertAt(value, position);
+                    plain.insertAt(value, position);
+                    break;
+                case 4:
+                    indexed.deleteValue(value);
+                    plain.deleteValue(value);
+                    break;
+                case 5:
+                    indexed.deleteAt(position);
+                    plain.deleteAt(position);
+                    break;
+                case 6:
+                    if (random.nextInt(20) == 0) {
+                        indexed.reverse();
+                        plain.reverse();
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (!values(indexed).equals(values(plain)))
+                fail(type + " seed " + seed + ": lists differ after step " + i);
+            for (int probe = 0; probe < distinct; probe++) {
+                long found = Node.idOf(indexed.search(probe));
+                if (found != firstId(indexed, probe))
+                    fail(type + " seed " + seed + ": search(" + probe + ") missed the first match at step " + i);
+            }
+        }
+    }
+
+    private static List<Integer> values(ListEngine list) {
+        List<Integer> values = new ArrayList<>(list.size());
+        ListCursor cursor = list.cursor();
+        while (cursor.next()) {
+            values.add(cursor.data());
+        }
+        return values;
+    }
+
+    private static long firstId(ListEngine list, int value) {
+        ListCursor cursor = list.cursor();
+        while (cursor.next()) {
+            if (cursor.data() == value)
+                return cursor.id();
+        }
+        return Node.NO_ID;
+    }
+
+    private static void fail(String message) {
+        System.err.println("FAILED: " + message);
+        System.exit(1);
+    }
+
+    /** Usage: {@code java -cp out src.ValueIndexCheck [--seeds=N]} */
+    public static void main(String[] args) {
+        int seeds = 20;
+        for (String arg : args) {
+            if (arg.startsWith("--seeds=")) {
+                seeds = Integer.parseInt(arg.substring("--seeds=".length()));
+            } else {
+                System.err.println("Usage: ValueIndexCheck [--seeds=N]");
+                System.exit(2);
+            }
+        }
+        for (String type : TYPES) {
+            for (int seed = 0; seed < seeds; seed++) {
+                // Few distinct values keep most of them duplicated many times over
+                check(type, 1 + seed % 6, 2000, seed);
+            }
+            System.out.printf("%s: %d seeds ok%n", type, seeds);
+        }
+    }
+}
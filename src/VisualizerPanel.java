@@ -3,329 +3,391 @@ package src;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.HierarchyBoundsAdapter;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.MouseWheelEvent;
 import java.util.*;
-import java.util.Timer;
-import java.util.TimerTask;
 
-public class VisualizerPanel extends JPanel implements SinglyLinkedList.NodeChangeListener,
-        DoublyLinkedList.NodeChangeListener,
-        CircularLinkedList.NodeChangeListener {
-    public String mode = "Singly";
-    public SinglyLinkedList sList = new SinglyLinkedList();
-    public DoublyLinkedList dList = new DoublyLinkedList();
-    public CircularLinkedList cList = new CircularLinkedList();
-
-    private String activeNodeId = null;
-    private String currentOperation = null;
-    private Timer highlightTimer;
+public class VisualizerPanel extends JPanel implements ListChangeListener, Scrollable {
+    // Node layout: node i sits at START_X + i * slot width on a single row
+    private static final int START_X = ListRenderer.START_X;
+    private static final int NODE_Y = ListRenderer.NODE_Y;
+    private static final int NODE_HEIGHT = ListRenderer.NODE_HEIGHT;
+    private static final int SPACING = ListRenderer.SPACING;
+    private static final int CANVAS_HEIGHT = ListRenderer.CANVAS_HEIGHT;
+    private static final double ZOOM_STEP = 1.25;
+    // Longer lists reverse without the fly-across, which would put every node on screen
+    private static final int MAX_MIRRORED_NODES = 200;
+
+    private String mode = "Singly";
+    // Node lists are guarded so worker threads may edit them while the EDT reads
+    private ListEngine list = GuardedLinkedList.guard(ListEngine.create(mode));
 
     private boolean darkMode = true;
+    private final ListRenderer renderer = new ListRenderer();
+    // Pick the zoom from the list length until the user zooms by hand
+    private boolean autoZoom = true;
+    private final AnimationEngine animations = new AnimationEngine(this::repaint);
+    // What paintComponent draws; follows the list through its change events
+    private final RenderModel model = new RenderModel();
+    private long lastVersion;
+    private boolean valueIndexEnabled = false;
+    private boolean positionIndexEnabled = false;
+    // Latency of every operation and repaint, published over JMX by Main
+    private final OperationMetrics metrics = new OperationMetrics();
 
     public VisualizerPanel() {
-        setPreferredSize(new Dimension(1400, 500));
-        setBackground(darkMode ? new Color(30, 30, 40) : new Color(240, 240, 250));
+        setBackground(RenderResources.background(darkMode));
+
+        // Register listener
+        attach(list);
 
-        // Register listeners
-        sList.addChangeListener(this);
-        dList.addChangeListener(this);
-        cList.addChangeListener(this);
+        addMouseWheelListener(this::onMouseWheel);
+        addHierarchyBoundsListener(new HierarchyBoundsAdapter() {
+            @Override
+            public void ancestorResized(HierarchyEvent e) {
+                if (autoZoom) {
+                    updateZoom();
+                }
+            }
+        });
     }
 
     public void setDarkMode(boolean dark) {
         this.darkMode = dark;
-        setBackground(dark ? new Color(30, 30, 40) : new Color(240, 240, 250));
+        setBackground(RenderResources.background(dark));
         repaint();
     }
 
+    public String getMode() {
+        return mode;
+    }
+
+    /** Swaps in a fresh, empty engine of the given type; the old list is dropped. */
+    public void setMode(String mode) {
+        list.removeChangeListener(this);
+        this.mode = mode;
+        list = GuardedLinkedList.guard(ListEngine.create(mode));
+        list.setValueIndexEnabled(valueIndexEnabled);
+        list.setPositionIndexEnabled(positionIndexEnabled);
+        attach(list);
+        animations.clear();
+        autoZoom = true;
+        updateZoom();
+    }
+
+    public ListEngine getList() {
+        return list;
+    }
+
+    /** The state last painted, for views such as the minimap that follow the canvas. */
+    RenderModel.Snapshot getSnapshot() {
+        return model.snapshot();
+    }
+
+    /** Width in pixels of the row of nodes at the current zoom. */
+    double getListWidth() {
+        return model.snapshot().size() * renderer.slotWidth();
+    }
+
+    OperationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /** Which of the renderer's views the current zoom shows. */
+    ListRenderer.Detail getDetail() {
+        return renderer.detail();
+    }
+
+    /** True while highlights, fades or node movement are still playing. */
+    boolean isAnimating() {
+        return animations.isAnimating();
+    }
+
+    /** Scrolls so that the given fraction (0 to 1) of the list is centered. */
+    public void scrollToFraction(double fraction) {
+        Rectangle visible = getVisibleRect();
+        int size = model.snapshot().size();
+        int center = START_X + (int) (Math.max(0, Math.min(1, fraction)) * size * renderer.slotWidth());
+        scrollRectToVisible(new Rectangle(center - visible.width / 2, visible.y, visible.width, 1));
+    }
+
+    /** Goes back to choosing the zoom from the list length. */
+    public void resetZoom() {
+        autoZoom = true;
+        updateZoom();
+    }
+
+    /** Returns false if the active list type has no value index. */
+    public boolean setValueIndexEnabled(boolean enabled) {
+        this.valueIndexEnabled = enabled;
+        return list.setValueIndexEnabled(enabled);
+    }
+
+    /** Returns false if the active list type has no position index. */
+    public boolean setPositionIndexEnabled(boolean enabled) {
+        this.positionIndexEnabled = enabled;
+        return list.setPositionIndexEnabled(enabled);
+    }
+
     public void insertStart(int val) {
-        switch (mode) {
-            case "Singly":
-                sList.insertStart(val);
-                break;
-            case "Doubly":
-                dList.insertStart(val);
-                break;
-            case "Circular":
-                cList.insertStart(val);
-                break;
+        long bytes = OperationMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            list.insertStart(val);
+        } finally {
+            metrics.record(OperationMetrics.Operation.INSERT_START, System.nanoTime() - start, bytes);
         }
     }
 
     public void insertEnd(int val) {
-        switch (mode) {
-            case "Singly":
-                sList.insertEnd(val);
-                break;
-            case "Doubly":
-                dList.insertEnd(val);
-                break;
-            case "Circular":
-                cList.insertEnd(val);
-                break;
+        long bytes = OperationMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            list.insertEnd(val);
+        } finally {
+            metrics.record(OperationMetrics.Operation.INSERT_END, System.nanoTime() - start, bytes);
         }
     }
 
     public void insertAt(int val, int pos) {
-        switch (mode) {
-            case "Singly":
-                sList.insertAt(val, pos);
-                break;
-            case "Doubly":
-                dList.insertAt(val, pos);
-                break;
-            case "Circular":
-                cList.insertAt(val, pos);
-                break;
+        long bytes = OperationMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            list.insertAt(val, pos);
+        } finally {
+            metrics.record(OperationMetrics.Operation.INSERT_AT, System.nanoTime() - start, bytes);
         }
     }
 
     public void deleteValue(int val) {
-        switch (mode) {
-            case "Singly":
-                sList.deleteValue(val);
-                break;
-            case "Doubly":
-                dList.deleteValue(val);
-                break;
-            case "Circular":
-                cList.deleteValue(val);
-                break;
+        long bytes = OperationMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            list.deleteValue(val);
+        } finally {
+            metrics.record(OperationMetrics.Operation.DELETE_VALUE, System.nanoTime() - start, bytes);
         }
     }
 
     public void deleteAt(int pos) {
-        switch (mode) {
-            case "Singly":
-                sList.deleteAt(pos);
-                break;
-            case "Doubly":
-                dList.deleteAt(pos);
-                break;
-            case "Circular":
-                cList.deleteAt(pos);
-                break;
+        long bytes = OperationMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            list.deleteAt(pos);
+        } finally {
+            metrics.record(OperationMetrics.Operation.DELETE_AT, System.nanoTime() - start, bytes);
+        }
+    }
+
+    /** Appends values as one bulk insert, timed as a single INSERT_ALL. */
+    public void insertAll(int[] values) {
+        long bytes = OperationMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            list.insertAll(values);
+        } finally {
+            metrics.record(OperationMetrics.Operation.INSERT_ALL, System.nanoTime() - start, bytes);
         }
     }
 
     public void reverse() {
-        switch (mode) {
-            case "Singly":
-                sList.reverse();
-                break;
-            case "Doubly":
-                dList.reverse();
-                break;
-            case "Circular":
-                cList.reverse();
-                break;
+        long bytes = OperationMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            list.reverse();
+        } finally {
+            metrics.record(OperationMetrics.Operation.REVERSE, System.nanoTime() - start, bytes);
         }
     }
 
     public void search(int val) {
-        Node found = null;
-        switch (mode) {
-            case "Singly":
-                found = sList.search(val);
-                break;
-            case "Doubly":
-                found = dList.search(val);
-                break;
-            case "Circular":
-                found = cList.search(val);
-                break;
-        }
+        long bytes = OperationMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            Node found = list.search(val);
 
-        if (found != null) {
-            activeNodeId = found.getId();
-            currentOperation = "search";
-            startHighlightTimer();
+            if (found != null) {
+                animations.highlight(found.getId());
+            }
+        } finally {
+            metrics.record(OperationMetrics.Operation.SEARCH, System.nanoTime() - start, bytes);
         }
         repaint();
     }
 
     public void clear() {
-        sList.clear();
-        dList.clear();
-        cList.clear();
-        activeNodeId = null;
-        currentOperation = null;
+        long bytes = OperationMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            list.clear();
+        } finally {
+            metrics.record(OperationMetrics.Operation.CLEAR, System.nanoTime() - start, bytes);
+        }
+        animations.clear();
         repaint();
     }
 
-    @Override
-    public void onNodeChanged(String operation, String nodeId) {
-        this.currentOperation = operation;
-        this.activeNodeId = nodeId;
-        startHighlightTimer();
+    // Ctrl+wheel zooms around the pointer; plain wheel events go on to the scroll pane
+    private void onMouseWheel(MouseWheelEvent e) {
+        Container parent = getParent();
+        if (!e.isControlDown()) {
+            if (parent != null && parent.getParent() != null) {
+                parent.getParent().dispatchEvent(SwingUtilities.convertMouseEvent(this, e, parent.getParent()));
+            }
+            return;
+        }
+        int size = model.snapshot().size();
+        double anchor = (e.getX() - START_X) / renderer.slotWidth();
+        int offset = e.getX() - getVisibleRect().x;
+        autoZoom = false;
+        renderer.setSlotWidth(renderer.slotWidth() * Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()), size);
+
+        revalidate();
+        if (parent instanceof JViewport) {
+            // Lay out now so the new width is in place before keeping the anchor under the pointer
+            parent.getParent().validate();
+            JViewport viewport = (JViewport) parent;
+            int x = START_X + (int) (anchor * renderer.slotWidth()) - offset;
+            int max = Math.max(0, getWidth() - viewport.getWidth());
+            viewport.setViewPosition(new Point(Math.max(0, Math.min(max, x)), 0));
+        }
         repaint();
     }
 
-    private void startHighlightTimer() {
-        if (highlightTimer != null) {
-            highlightTimer.cancel();
+    // Fits the zoom to the list length, or just keeps a manual zoom within bounds
+    private void updateZoom() {
+        int size = model.snapshot().size();
+        if (autoZoom) {
+            Container parent = getParent();
+            int viewWidth = parent instanceof JViewport && parent.getWidth() > 0 ? parent.getWidth() : 1400;
+            renderer.setSlotWidth(ListRenderer.autoSlotWidth(size, viewWidth), size);
+        } else {
+            renderer.setSlotWidth(renderer.slotWidth(), size);
         }
-        highlightTimer = new Timer();
-        highlightTimer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                activeNodeId = null;
-                currentOperation = null;
-                repaint();
-            }
-        }, 1000);
+        revalidate();
+        repaint();
     }
 
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    // Events are queued and handed over once per EDT turn, so a burst of
+    // mutations costs one model update and one repaint.
+    private void attach(ListEngine engine) {
+        engine.changeBus().setDeliveryExecutor(SwingUtilities::invokeLater);
+        engine.addChangeListener(this);
+        model.rebuild(engine);
+    }
 
-        java.util.List<Node> nodes;
-        switch (mode) {
-            case "Doubly":
-                nodes = dList.getNodes();
-                break;
-            case "Circular":
-                nodes = cList.getNodes();
-                break;
-            default:
-                nodes = sList.getNodes();
-                break;
-        }
+    @Override
+    public void onListChanged(ListChangeEvent event) {
+        onListChangedBatch(Collections.singletonList(event));
+    }
 
-        if (nodes.isEmpty()) {
-            drawEmptyMessage(g2d);
+    @Override
+    public void onListChangedBatch(java.util.List<ListChangeEvent> events) {
+        if (events.isEmpty())
             return;
+        model.apply(events, list);
+        ListChangeEvent last = events.get(events.size() - 1);
+        if (events.size() <= AnimationEngine.MAX_ANIMATIONS) {
+            for (ListChangeEvent event : events) {
+                animate(event);
+            }
+        } else {
+            // Too many to show one by one: jump to the end state
+            animations.settle();
+            animations.highlight(last.nodeId);
         }
-
-        drawNodes(g2d, nodes);
-        drawConnections(g2d, nodes);
-
-        if (mode.equals("Circular") && nodes.size() > 1) {
-            drawCircularConnection(g2d, nodes);
+        long before = lastVersion;
+        lastVersion = model.snapshot().version();
+        updateZoom(); // the canvas width follows the list length
+        if (last.position >= 0) {
+            int width = (int) Math.ceil(renderer.slotWidth());
+            scrollRectToVisible(new Rectangle(renderer.nodeX(last.position), NODE_Y, width, NODE_HEIGHT));
         }
+        firePropertyChange("listVersion", before, lastVersion);
     }
 
-    private void drawEmptyMessage(Graphics2D g2d) {
-        g2d.setFont(new Font("Arial", Font.BOLD, 24));
-        g2d.setColor(darkMode ? new Color(200, 200, 220) : new Color(80, 80, 100));
-
-        String message = "🚀 Linked List is Empty";
-        FontMetrics fm = g2d.getFontMetrics();
-        int x = (getWidth() - fm.stringWidth(message)) / 2;
-        int y = getHeight() / 2 - 20;
-        g2d.drawString(message, x, y);
-
-        g2d.setFont(new Font("Arial", Font.ITALIC, 16));
-        String subtitle = "Add nodes to begin visualization!";
-        fm = g2d.getFontMetrics();
-        x = (getWidth() - fm.stringWidth(subtitle)) / 2;
-        y = getHeight() / 2 + 20;
-        g2d.drawString(subtitle, x, y);
+    @Override
+    public Dimension getPreferredSize() {
+        // Room for every node plus the trailing arrow and "Circular" label
+        return new Dimension(Math.max(1400, renderer.canvasWidth(model.snapshot().size())), CANVAS_HEIGHT);
     }
 
-    private void drawNodes(Graphics2D g2d, java.util.List<Node> nodes) {
-        int startX = 100;
-        int y = 200;
-        int nodeWidth = 140;
-        int nodeHeight = 80;
-        int spacing = 160;
-
-        for (int i = 0; i < nodes.size(); i++) {
-            Node node = nodes.get(i);
-            int x = startX + i * spacing;
-
-            // Draw node
-            Color nodeColor = node.getId().equals(activeNodeId) ? new Color(255, 105, 180) : // Highlight color
-                    new Color(65, 105, 225); // Normal blue color
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return new Dimension(1400, CANVAS_HEIGHT);
+    }
 
-            g2d.setColor(nodeColor);
-            g2d.fillRoundRect(x, y, nodeWidth, nodeHeight, 20, 20);
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        if (orientation != SwingConstants.HORIZONTAL)
+            return 20;
+        return (int) Math.max(20, Math.min(SPACING, renderer.slotWidth()));
+    }
 
-            // Draw border
-            g2d.setColor(darkMode ? Color.WHITE : Color.BLACK);
-            g2d.setStroke(new BasicStroke(2));
-            g2d.drawRoundRect(x, y, nodeWidth, nodeHeight, 20, 20);
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.HORIZONTAL ? visibleRect.width - SPACING : visibleRect.height;
+    }
 
-            // Draw node content
-            g2d.setColor(Color.WHITE);
-            g2d.setFont(new Font("Arial", Font.BOLD, 12));
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        // Stretch to fill a wide viewport; scroll once the list outgrows it
+        Container parent = getParent();
+        return parent instanceof JViewport && parent.getWidth() > getPreferredSize().width;
+    }
 
-            int textX = x + 15;
-            int textY = y + 25;
-            g2d.drawString("Data: " + node.data, textX, textY);
-            g2d.drawString("Next: " + (node.next != null ? node.next.data : "null"), textX, textY + 20);
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return true;
+    }
 
-            if (mode.equals("Doubly")) {
-                g2d.drawString("Prev: " + (node.prev != null ? node.prev.data : "null"), textX, textY + 40);
+    private void animate(ListChangeEvent event) {
+        if (event.op.isInsert() && event.position >= 0) {
+            animations.inserted(event.position, SPACING);
+            animations.highlight(event.nodeId);
+        } else if (event.op.isRemove() && event.position >= 0) {
+            animations.removed(event.position, event.value, SPACING);
+        } else if (event.op == ListChangeEvent.Op.REVERSE && event.count <= MAX_MIRRORED_NODES) {
+            animations.reversed(event.count);
+        } else {
+            // Nothing to move from or to, so let pending movement finish in place
+            animations.settle();
+            if (event.nodeId != Node.NO_ID) {
+                animations.highlight(event.nodeId);
             }
-
-            // Draw node index
-            g2d.setColor(new Color(255, 200, 100));
-            g2d.setFont(new Font("Arial", Font.BOLD, 11));
-            g2d.drawString("Node " + i, x + 10, y - 5);
         }
     }
 
-    private void drawConnections(Graphics2D g2d, java.util.List<Node> nodes) {
-        int startX = 100;
-        int y = 200;
-        int nodeWidth = 140;
-        int nodeHeight = 80;
-        int spacing = 160;
-
-        g2d.setColor(darkMode ? Color.WHITE : Color.BLACK);
-        g2d.setStroke(new BasicStroke(2));
-
-        for (int i = 0; i < nodes.size() - 1; i++) {
-            int x1 = startX + i * spacing + nodeWidth;
-            int y1 = y + nodeHeight / 2;
-            int x2 = startX + (i + 1) * spacing;
-            int y2 = y + nodeHeight / 2;
-
-            // Draw arrow
-            g2d.drawLine(x1, y1, x2, y2);
-            drawArrowHead(g2d, x2, y2, Math.PI);
+    @Override
+    protected void paintComponent(Graphics g) {
+        long bytes = OperationMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            paintList(g);
+        } finally {
+            metrics.record(OperationMetrics.Operation.REPAINT, System.nanoTime() - start, bytes);
         }
     }
 
-    private void drawCircularConnection(Graphics2D g2d, java.util.List<Node> nodes) {
-        int startX = 100;
-        int y = 200;
-        int nodeWidth = 140;
-        int nodeHeight = 80;
-        int spacing = 160;
-
-        g2d.setColor(Color.GREEN);
-        g2d.setStroke(new BasicStroke(2));
-
-        int firstX = startX;
-        int firstY = y + nodeHeight / 2;
-        int lastX = startX + (nodes.size() - 1) * spacing + nodeWidth;
-        int lastY = y + nodeHeight / 2;
-
-        // Draw curved connection
-        int controlX = (firstX + lastX) / 2;
-        int controlY = y - 50;
-
-        g2d.drawLine(lastX, lastY, controlX, controlY);
-        g2d.drawLine(controlX, controlY, firstX, firstY);
-
-        drawArrowHead(g2d, firstX, firstY, 0);
-
-        // Label
-        g2d.setFont(new Font("Arial", Font.BOLD, 14));
-        g2d.drawString("↻ Circular", lastX + 10, y + nodeHeight / 2);
-    }
+    private void paintList(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-    private void drawArrowHead(Graphics2D g2d, int x, int y, double angle) {
-        int arrowSize = 10;
-        int x1 = x - (int) (arrowSize * Math.cos(angle - Math.PI / 6));
-        int y1 = y - (int) (arrowSize * Math.sin(angle - Math.PI / 6));
-        int x2 = x - (int) (arrowSize * Math.cos(angle + Math.PI / 6));
-        int y2 = y - (int) (arrowSize * Math.sin(angle + Math.PI / 6));
+        // One snapshot per frame, so the paint never sees a half-applied edit
+        RenderModel.Snapshot snapshot = model.snapshot();
+        if (snapshot.size() == 0) {
+            renderer.paintEmpty(g2d, new Rectangle(getVisibleRect().x, 0, getVisibleRect().width, getHeight()),
+                    darkMode);
+            return;
+        }
 
-        g2d.fillPolygon(new int[] { x, x1, x2 }, new int[] { y, y1, y2 }, 3);
+        Rectangle clip = g2d.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        renderer.paint(g2d, clip, snapshot, list.hasPrevLinks(), list.isCircular(), darkMode, animations,
+                System.nanoTime());
     }
-}
\ No newline at end of file
+}
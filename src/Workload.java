@@ -0,0 +1,355 @@
+// Workload.java - Operation scripts and seeded random workload specs
+package src;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * A sequence of list operations, read from a text script. Blank lines and
+ * text after '#' are ignored; every other line is one operation, named as
+ * the GUI records them:
+ *
+ * <pre>
+ * INSERT_START 5        INSERT_END 7         INSERT_AT 9 2   (value, position)
+ * DELETE_VALUE 5        DELETE_AT 2          SEARCH 7
+ * REVERSE               CLEAR                rate 500        (ops per second)
+ * </pre>
+ *
+ * A script may instead be a single seeded random spec, whose operations are
+ * generated on the fly so a run of any length needs no memory:
+ *
+ * <pre>
+ * random seed=42 ops=1000000 size=5000 mix=INSERT_AT:30,DELETE_VALUE:40,SEARCH:30 values=uniform:0:1000
+ * </pre>
+ *
+ * size is the target list size, filled in before the run starts. values
+ * is uniform:min:max (max exclusive), sequential[:start] or zipf:n[:s],
+ * which draws 0..n-1 with value k as likely as 1/(k+1)^s. Positions are
+ * drawn uniformly over the list as it is when each operation runs.
+ */
+final class Workload {
+    enum Op {
+        INSERT_START(1), INSERT_END(1), INSERT_AT(2), DELETE_VALUE(1), DELETE_AT(1), REVERSE(0), SEARCH(1), CLEAR(0);
+
+        final int arguments;
+
+        Op(int arguments) {
+            this.arguments = arguments;
+        }
+
+        // DELETE_AT's one argument is a position, not a value
+        boolean takesValue() {
+            return arguments > 0 && this != DELETE_AT;
+        }
+    }
+
+    /** One operation; filled in place by next() so a run allocates nothing per step. */
+    static final class Step {
+        Op op;
+        int value;
+        int position;
+
+        @Override
+        public String toString() {
+            if (op == Op.INSERT_AT)
+                return op + " " + value + " " + position;
+            if (op == Op.DELETE_AT)
+                return op + " " + position;
+            return op.arguments == 0 ? op.toString() : op + " " + value;
+        }
+    }
+
+    // Explicit script
+    private Op[] ops = new Op[0];
+    private int[] values = new int[0];
+    private int[] positions = new int[0];
+    private int length;
+
+    // Random spec
+    private boolean generated;
+    private long seed;
+    private long count;
+    private int targetSize;
+    private Op[] mixOps;
+    private int[] mixWeights; // cumulative
+    private String distribution = "uniform";
+    private int low;
+    private int high = 1000;
+    private double[] zipf; // cumulative probabilities
+
+    private double rate;
+    private SplittableRandom random;
+    private long produced;
+    private int sequence;
+
+    private Workload() {
+    }
+
+    static Workload parse(File file) throws IOException {
+        try (Reader reader = new BufferedReader(new FileReader(file))) {
+            return parse(reader);
+        }
+    }
+
+    /** Reads a script or random spec; malformed lines throw IllegalArgumentException naming the line. */
+    static Workload parse(Reader source) throws IOException {
+        Workload workload = new Workload();
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            String text = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (text.isEmpty())
+                continue;
+            try {
+                workload.parseLine(text.split("\\s+"));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        if (workload.generated && workload.length > 0)
+            throw new IllegalArgumentException("a random spec cannot be mixed with explicit operations");
+        workload.reset();
+        return workload;
+    }
+
+    private void parseLine(String[] words) {
+        String keyword = words[0].toUpperCase(Locale.ROOT);
+        if (keyword.equals("RATE")) {
+            rate = Double.parseDouble(words[1]);
+            return;
+        }
+        if (keyword.equals("RANDOM")) {
+            parseSpec(words);
+            return;
+        }
+        Op op;
+        try {
+            op = Op.valueOf(keyword);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown operation " + words[0]);
+        }
+        if (words.length != op.arguments + 1)
+            throw new IllegalArgumentException(op + " takes " + op.arguments + " argument(s)");
+        if (length == ops.length) {
+            int capacity = Math.max(16, length * 2);
+            ops = Arrays.copyOf(ops, capacity);
+            values = Arrays.copyOf(values, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+        }
+        ops[length] = op;
+        if (op == Op.DELETE_AT) {
+            positions[length] = Integer.parseInt(words[1]);
+        } else if (op.arguments > 0) {
+            values[length] = Integer.parseInt(words[1]);
+            if (op == Op.INSERT_AT) {
+                positions[length] = Integer.parseInt(words[2]);
+            }
+        }
+        length++;
+    }
+
+    private void parseSpec(String[] words) {
+        generated = true;
+        seed = 1;
+        count = 100_000;
+        mixOps = new Op[] { Op.INSERT_END, Op.DELETE_VALUE, Op.SEARCH };
+        mixWeights = new int[] { 40, 70, 100 };
+        for (int i = 1; i < words.length; i++) {
+            int equals = words[i].indexOf('=');
+            if (equals < 0)
+                throw new IllegalArgumentException("expected key=value, got " + words[i]);
+            String key = words[i].substring(0, equals).toLowerCase(Locale.ROOT);
+            String value = words[i].substring(equals + 1);
+            switch (key) {
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "ops":
+                    count = Long.parseLong(value);
+                    break;
+                case "size":
+                    targetSize = Integer.parseInt(value);
+                    break;
+                case "rate":
+                    rate = Double.parseDouble(value);
+                    break;
+                case "mix":
+                    parseMix(value);
+                    break;
+                case "values":
+                    parseDistribution(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown setting " + key);
+            }
+        }
+    }
+
+    private void parseMix(String mix) {
+        String[] parts = mix.split(",");
+        mixOps = new Op[parts.length];
+        mixWeights = new int[parts.length];
+        int total = 0;
+        for (int i = 0; i < parts.length; i++) {
+            String[] pair = parts[i].split(":");
+            mixOps[i] = Op.valueOf(pair[0].toUpperCase(Locale.ROOT));
+            total += pair.length > 1 ? Integer.parseInt(pair[1]) : 1;
+            mixWeights[i] = total;
+        }
+        if (total <= 0)
+            throw new IllegalArgumentException("mix weights must add up to more than 0");
+    }
+
+    private void parseDistribution(String spec) {
+        String[] parts = spec.split(":");
+        distribution = parts[0].toLowerCase(Locale.ROOT);
+        switch (distribution) {
+            case "uniform":
+                low = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+                high = parts.length > 2 ? Integer.parseInt(parts[2]) : 1000;
+                if (high <= low)
+                    throw new IllegalArgumentException("uniform needs min < max");
+                break;
+            case "sequential":
+                low = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+                break;
+            case "zipf":
+                int n = parts.length > 1 ? Integer.parseInt(parts[1]) : 1000;
+                double s = parts.length > 2 ? Double.parseDouble(parts[2]) : 1.0;
+                zipf = new double[n];
+                double sum = 0;
+                for (int k = 0; k < n; k++) {
+                    sum += 1 / Math.pow(k + 1, s);
+                    zipf[k] = sum;
+                }
+                for (int k = 0; k < n; k++) {
+                    zipf[k] /= sum;
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("unknown value distribution " + parts[0]);
+        }
+    }
+
+    /** Target operations per second; 0 runs as fast as possible. */
+    double rate() {
+        return rate;
+    }
+
+    /** Number of operations in the run, not counting the prefill. */
+    long length() {
+        return generated ? count : length;
+    }
+
+    /** Whether the run can perform op, so callers can refuse lists that lack it. */
+    boolean uses(Op op) {
+        if (generated) {
+            for (int i = 0; i < mixOps.length; i++) {
+                int weight = mixWeights[i] - (i == 0 ? 0 : mixWeights[i - 1]);
+                if (mixOps[i] == op && weight > 0)
+                    return true;
+            }
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (ops[i] == op)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Values to load before the run so the list starts at the spec's target
+     * size. Draws from the same random sequence, so call it right after
+     * reset() when replaying.
+     */
+    int[] prefill() {
+        int[] fill = new int[generated ? targetSize : 0];
+        for (int i = 0; i < fill.length; i++) {
+            fill[i] = nextValue();
+        }
+        return fill;
+    }
+
+    /** Starts again from the first operation, with the same random sequence. */
+    void reset() {
+        random = new SplittableRandom(seed);
+        produced = 0;
+        sequence = low;
+    }
+
+    /**
+     * Fills step with the next operation; listSize lets random specs pick a
+     * position inside the list. Returns false once the workload is done.
+     */
+    boolean next(Step step, int listSize) {
+        if (produced >= length())
+            return false;
+        if (!generated) {
+            int i = (int) produced++;
+            step.op = ops[i];
+            step.value = values[i];
+            step.position = positions[i];
+            return true;
+        }
+        produced++;
+        int pick = random.nextInt(mixWeights[mixWeights.length - 1]);
+        int k = 0;
+        while (mixWeights[k] <= pick) {
+            k++;
+        }
+        step.op = mixOps[k];
+        step.value = step.op.takesValue() ? nextValue() : 0;
+        if (step.op == Op.INSERT_AT) {
+            step.position = random.nextInt(listSize + 1);
+        } else if (step.op == Op.DELETE_AT) {
+            step.position = listSize == 0 ? 0 : random.nextInt(listSize);
+        }
+        return true;
+    }
+
+    private int nextValue() {
+        switch (distribution) {
+            case "sequential":
+                return sequence++;
+            case "zipf":
+                int k = Arrays.binarySearch(zipf, random.nextDouble());
+                return Math.min(zipf.length - 1, k >= 0 ? k : -k - 1);
+            default:
+                return low + random.nextInt(high - low);
+        }
+    }
+
+    /** Runs one step against a list. */
+    static void apply(Step step, ListEngine list) {
+        switch (step.op) {
+            case INSERT_START:
+                list.insertStart(step.value);
+                break;
+            case INSERT_END:
+                list.insertEnd(step.value);
+                break;
+            case INSERT_AT:
+                list.insertAt(step.value, step.position);
+                break;
+            case DELETE_VALUE:
+                list.deleteValue(step.value);
+                break;
+            case DELETE_AT:
+                list.deleteAt(step.position);
+                break;
+            case REVERSE:
+                list.reverse();
+                break;
+            case SEARCH:
+                list.search(step.value);
+                break;
+            case CLEAR:
+                list.clear();
+                break;
+        }
+    }
+}
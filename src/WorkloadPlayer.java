@@ -0,0 +1,111 @@
+// WorkloadPlayer.java - Plays a workload script into the visualizer at a chosen speed
+package src;
+
+import javax.swing.Timer;
+import java.util.function.LongConsumer;
+
+/**
+ * Feeds a Workload through the VisualizerPanel on the EDT, so a recorded or
+ * generated workload animates against the real list. Operations are paced
+ * by wall-clock time: each frame runs however many are due, capped so a
+ * fast script cannot stall the UI.
+ */
+final class WorkloadPlayer {
+    private static final int FRAME_MILLIS = 16;
+    private static final int MAX_OPS_PER_FRAME = 2000;
+
+    private final VisualizerPanel panel;
+    private final Timer timer = new Timer(FRAME_MILLIS, e -> tick());
+    private final Workload.Step step = new Workload.Step();
+    private Workload workload;
+    private double speed; // operations per second; 0 means as fast as frames allow
+    private long started;
+    private long played;
+    private LongConsumer onProgress = played -> {
+    };
+    private Runnable onFinished = () -> {
+    };
+
+    WorkloadPlayer(VisualizerPanel panel) {
+        this.panel = panel;
+        timer.setCoalesce(true);
+    }
+
+    /** Called with the number of operations played after every frame. */
+    void setOnProgress(LongConsumer onProgress) {
+        this.onProgress = onProgress;
+    }
+
+    void setOnFinished(Runnable onFinished) {
+        this.onFinished = onFinished;
+    }
+
+    /** Starts the workload from the top; speed in operations per second, 0 for as fast as possible. */
+    void play(Workload workload, double speed) {
+        stop();
+        this.workload = workload;
+        this.speed = speed;
+        workload.reset();
+        int[] prefill = workload.prefill();
+        if (prefill.length > 0) {
+            panel.insertAll(prefill);
+        }
+        played = 0;
+        started = System.nanoTime();
+        timer.start();
+    }
+
+    void stop() {
+        timer.stop();
+    }
+
+    boolean isPlaying() {
+        return timer.isRunning();
+    }
+
+    private void tick() {
+        long due = speed > 0 ? (long) ((System.nanoTime() - started) * speed / 1e9) + 1 : Long.MAX_VALUE;
+        long budget = Math.min(MAX_OPS_PER_FRAME, due - played);
+        for (long i = 0; i < budget; i++) {
+            if (!workload.next(step, panel.getList().size())) {
+                stop();
+                onProgress.accept(played);
+                onFinished.run();
+                return;
+            }
+            apply(step);
+            played++;
+        }
+        onProgress.accept(played);
+    }
+
+    // Goes through the panel, as the buttons do, so searches still highlight
+    private void apply(Workload.Step step) {
+        switch (step.op) {
+            case INSERT_START:
+                panel.insertStart(step.value);
+                break;
+            case INSERT_END:
+                panel.insertEnd(step.value);
+                break;
+            case INSERT_AT:
+                panel.insertAt(step.value, step.position);
+                break;
+            case DELETE_VALUE:
+                panel.deleteValue(step.value);
+                break;
+            case DELETE_AT:
+                panel.deleteAt(step.position);
+                break;
+            case REVERSE:
+                panel.reverse();
+                break;
+            case SEARCH:
+                panel.search(step.value);
+                break;
+            case CLEAR:
+                panel.clear();
+                break;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+// WorkloadRunner.java - Headless workload execution with throughput and latency report
+package src;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.*;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a Workload against any list type without starting Swing and reports
+ * throughput, latency percentiles per operation and peak heap. With a rate
+ * set, operations are issued on a fixed schedule and latency is measured
+ * from when each one was due, so a stall also counts against the
+ * operations queued behind it.
+ *
+ * Usage: {@code java src.WorkloadRunner <list type> <script|->}
+ */
+final class WorkloadRunner {
+    private WorkloadRunner() {
+    }
+
+    /** Outcome of one run. */
+    static final class Report {
+        final String listType;
+        final long operations;
+        final long nanos;
+        final long peakHeapBytes;
+        final int finalSize;
+        final LatencyHistogram overall = new LatencyHistogram();
+        final LatencyHistogram[] byOp = new LatencyHistogram[Workload.Op.values().length];
+
+        Report(String listType, long operations, long nanos, long peakHeapBytes, int finalSize,
+                LatencyHistogram[] byOp) {
+            this.listType = listType;
+            this.operations = operations;
+            this.nanos = nanos;
+            this.peakHeapBytes = peakHeapBytes;
+            this.finalSize = finalSize;
+            for (int i = 0; i < byOp.length; i++) {
+                this.byOp[i] = byOp[i];
+                overall.add(byOp[i]);
+            }
+        }
+
+        double operationsPerSecond() {
+            return nanos == 0 ? 0 : operations * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format("list         %s%n", listType));
+            text.append(String.format("operations   %,d in %.3f s%n", operations, nanos / 1e9));
+            text.append(String.format("throughput   %,.0f ops/s%n", operationsPerSecond()));
+            text.append(String.format("peak heap    %.1f MB%n", peakHeapBytes / (1024.0 * 1024.0)));
+            text.append(String.format("final size   %,d%n%n", finalSize));
+            text.append(String.format("%-13s %10s %10s %10s %10s %10s %10s%n", "latency (us)", "count", "p50", "p90",
+                    "p99", "p99.9", "max"));
+            for (Workload.Op op : Workload.Op.values()) {
+                if (byOp[op.ordinal()].count() > 0) {
+                    appendRow(text, op.toString(), byOp[op.ordinal()]);
+                }
+            }
+            appendRow(text, "ALL", overall);
+            return text.toString();
+        }
+
+        private static void appendRow(StringBuilder text, String name, LatencyHistogram histogram) {
+            text.append(String.format("%-13s %,10d %10.2f %10.2f %10.2f %10.2f %10.2f%n", name, histogram.count(),
+                    histogram.percentile(50) / 1e3, histogram.percentile(90) / 1e3, histogram.percentile(99) / 1e3,
+                    histogram.percentile(99.9) / 1e3, histogram.max() / 1e3));
+        }
+    }
+
+    /** Loads the workload's prefill, then times every operation on this thread. */
+    static Report run(Workload workload, ListEngine list, String listType) {
+        workload.reset();
+        list.insertAll(workload.prefill());
+
+        LatencyHistogram[] byOp = new LatencyHistogram[Workload.Op.values().length];
+        for (int i = 0; i < byOp.length; i++) {
+            byOp[i] = new LatencyHistogram();
+        }
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                heapPools.add(pool);
+            }
+        }
+
+        double rate = workload.rate();
+        long interval = rate > 0 ? (long) (1e9 / rate) : 0;
+        Workload.Step step = new Workload.Step();
+        long operations = 0;
+        long start = System.nanoTime();
+        while (workload.next(step, list.size())) {
+            long due = interval > 0 ? start + operations * interval : System.nanoTime();
+            waitUntil(due);
+            Workload.apply(step, list);
+            byOp[step.op.ordinal()].record(System.nanoTime() - due);
+            operations++;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long peak = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peak += pool.getPeakUsage().getUsed();
+        }
+        return new Report(listType, operations, elapsed, peak, list.size(), byOp);
+    }
+
+    // Parks for long waits and spins the last stretch, which parking overshoots
+    private static void waitUntil(long due) {
+        long remaining;
+        while ((remaining = due - System.nanoTime()) > 0) {
+            if (remaining > 100_000) {
+                LockSupport.parkNanos(remaining - 50_000);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: WorkloadRunner <Singly|Doubly|Circular|Array|Off-Heap|Concurrent> <script|->");
+            System.exit(2);
+        }
+        Workload workload;
+        try {
+            workload = args[1].equals("-")
+                    ? Workload.parse(new InputStreamReader(System.in))
+                    : Workload.parse(new File(args[1]));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Bad workload: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        ListEngine list = ListEngine.create(args[0]);
+        if (workload.uses(Workload.Op.REVERSE) && !list.supportsReverse()) {
+            System.err.println("Bad workload: the " + args[0] + " list cannot REVERSE");
+            System.exit(2);
+        }
+        System.out.print(run(workload, list, args[0]));
+    }
+}